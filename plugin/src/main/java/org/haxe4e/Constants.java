@@ -27,6 +27,9 @@ public interface Constants {
    String LAUNCH_ATTR_PROJECT = "launch.haxe.project";
    String LAUNCH_ATTR_HAXE_SDK = "launch.haxe.sdk";
    String LAUNCH_ATTR_HAXE_BUILD_FILE = "launch.haxe.haxe_build_file";
+   String LAUNCH_ATTR_REUSE_BUILD_OUTPUT = "launch.haxe.reuse_build_output";
+   String LAUNCH_ATTR_USE_COMPILATION_SERVER = "launch.haxe.use_compilation_server";
+   String LAUNCH_ATTR_HASHLINK_HOT_RELOAD = "launch.haxe.hashlink_hot_reload";
 
    String HAXE_FILE_EXTENSION = "hx";
 
@@ -39,4 +42,14 @@ public interface Constants {
     * id of <launchGroup/> as specified in plugin.xml
     */
    String LAUNCH_HAXE_GROUP = "org.haxe4e.launch.haxe.group";
+
+   /**
+    * id of the watch mode <launchGroup/> as specified in plugin.xml
+    */
+   String LAUNCH_HAXE_WATCH_GROUP = "org.haxe4e.launch.haxe.watch_group";
+
+   /**
+    * id of <launchMode/> as specified in plugin.xml, runs the program and restarts it whenever its sources change
+    */
+   String LAUNCH_MODE_WATCH = "watch";
 }
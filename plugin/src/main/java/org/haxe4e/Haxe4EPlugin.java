@@ -8,6 +8,8 @@
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jface.resource.ImageRegistry;
+import org.haxe4e.builder.HaxeAutoBuildScheduler;
+import org.haxe4e.builder.HaxeCompilationServer;
 import org.haxe4e.navigation.HaxeDependenciesUpdater;
 import org.haxe4e.navigation.WindowListener;
 import org.osgi.framework.BundleContext;
@@ -84,6 +86,8 @@ public void start(final BundleContext context) throws Exception {
    public void stop(final BundleContext context) throws Exception {
       HaxeDependenciesUpdater.INSTANCE.uninstall();
       WindowListener.INSTANCE.detatch();
+      HaxeAutoBuildScheduler.INSTANCE.cancelAll();
+      HaxeCompilationServer.stopAll();
 
       instance = null;
       super.stop(context);
@@ -0,0 +1,130 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.builder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.builder.HaxeBuilder.CompilationUnit;
+import org.haxe4e.model.HaxeSDK;
+import org.haxe4e.model.HaxelibJSON;
+import org.haxe4e.model.buildsystem.BuildFile;
+import org.haxe4e.model.buildsystem.HaxeBuildFile;
+
+/**
+ * Maps changed resources to the compilation units affected by them, i.e. the units whose class paths, build files or dev haxelib
+ * locations contain a changed resource.
+ *
+ * @author Sebastian Thomschke
+ */
+final class HaxeAffectedBuildFiles {
+
+   private final IProject project;
+   private final HaxeSDK haxeSDK;
+   private final IProgressMonitor monitor;
+
+   /**
+    * project relative paths of the changed resources
+    */
+   private final Collection<IPath> changes;
+
+   /**
+    * file system locations of the dev haxelibs used by a build file
+    */
+   private final Map<IFile, List<Path>> devHaxelibsByBuildFile = new HashMap<>();
+
+   HaxeAffectedBuildFiles(final IProject project, final HaxeSDK haxeSDK, final Collection<IPath> changes,
+         final IProgressMonitor monitor) {
+      this.project = project;
+      this.haxeSDK = haxeSDK;
+      this.changes = changes;
+      this.monitor = monitor;
+   }
+
+   /**
+    * @return the compilation units affected by the changes. If a change cannot be attributed to any compilation unit all units are
+    *         returned.
+    */
+   List<CompilationUnit> filter(final List<CompilationUnit> units) {
+      final var affectedUnits = new ArrayList<CompilationUnit>();
+      final var attributedChanges = new HashSet<IPath>();
+      for (final var unit : units) {
+         final var affectingChanges = getAffectingChanges(unit);
+         if (!affectingChanges.isEmpty()) {
+            affectedUnits.add(unit);
+            attributedChanges.addAll(affectingChanges);
+         }
+      }
+
+      if (attributedChanges.size() < changes.size()) {
+         Haxe4EPlugin.log().debug("Not all changes of project [{0}] can be attributed to a build file, building all.", project.getName());
+         return units;
+      }
+      return affectedUnits;
+   }
+
+   private Set<IPath> getAffectingChanges(final CompilationUnit unit) {
+      final var buildFile = unit.buildFile();
+      final var buildFilePaths = new HashSet<IPath>();
+      buildFile.getBuildFiles().forEach(f -> buildFilePaths.add(f.getProjectRelativePath()));
+
+      var sourcePaths = buildFile instanceof final HaxeBuildFile hxmlFile ? hxmlFile.getSourcePaths(unit.args()) : Set.<IPath>of();
+      if (sourcePaths.isEmpty()) {
+         sourcePaths = buildFile.getSourcePaths();
+      }
+
+      final var projectLoc = project.getLocation();
+      final var affectingChanges = new HashSet<IPath>();
+      for (final var change : changes) {
+         if (buildFilePaths.contains(change) //
+               || change.segmentCount() == 1 && HaxelibJSON.FILENAME.equals(change.lastSegment())) {
+            affectingChanges.add(change);
+            continue;
+         }
+
+         if (sourcePaths.stream().anyMatch(sourcePath -> sourcePath.isPrefixOf(change))) {
+            affectingChanges.add(change);
+            continue;
+         }
+
+         if (projectLoc != null) {
+            final var changeLoc = projectLoc.append(change).toFile().toPath();
+            if (getDevHaxelibs(buildFile).stream().anyMatch(changeLoc::startsWith)) {
+               affectingChanges.add(change);
+            }
+         }
+      }
+      return affectingChanges;
+   }
+
+   private List<Path> getDevHaxelibs(final BuildFile buildFile) {
+      return devHaxelibsByBuildFile.computeIfAbsent(buildFile.location, f -> {
+         final var locations = new ArrayList<Path>();
+         try {
+            for (final var haxelib : buildFile.getDependencies(haxeSDK, monitor)) {
+               if (haxelib.isDevVersion) {
+                  locations.add(haxelib.location);
+               }
+            }
+         } catch (final RuntimeException ex) {
+            Haxe4EPlugin.log().debug(ex);
+         }
+         return locations;
+      });
+   }
+}
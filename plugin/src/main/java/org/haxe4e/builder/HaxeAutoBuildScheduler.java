@@ -0,0 +1,198 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.builder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.annotation.Nullable;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.prefs.HaxeProjectPreference;
+
+/**
+ * Coalesces auto-builds of a project.
+ * <p>
+ * Changes reported in quick succession (e.g. by refactorings, VCS checkouts or formatter runs) are collected during a configurable
+ * delay and result in a single build. A change arriving while a build is running cancels the now outdated build, which terminates the
+ * compiler process, and schedules a new build over the merged change set.
+ * <p>
+ * As auto-builds run outside the workspace build, an auto-build of a project first waits for pending and running auto-builds of the
+ * projects providing haxelibs to it, see {@link HaxeProjectGraph}, so providers are still built before their consumers.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeAutoBuildScheduler {
+
+   /**
+    * job family of the auto-build of a single project
+    */
+   private record ProjectFamily(IProject project) {
+   }
+
+   private static final class AutoBuildJob extends Job {
+      final IProject project;
+
+      /**
+       * project relative paths of the changed files not yet covered by a completed build
+       */
+      final Set<IPath> pendingChanges = new LinkedHashSet<>();
+
+      /**
+       * true if a build of all compilation units was requested, e.g. because the changed resources are unknown
+       */
+      boolean pendingFullBuild;
+
+      AutoBuildJob(final IProject project) {
+         super("Auto-building project '" + project.getName() + "'...");
+         this.project = project;
+         // no job rule, the build rule is determined when the build starts as the build file's outputs may change meanwhile
+         setPriority(Job.BUILD);
+      }
+
+      @Override
+      public boolean belongsTo(final Object family) {
+         return family == HaxeAutoBuildScheduler.INSTANCE || family.equals(new ProjectFamily(project));
+      }
+
+      @Override
+      protected IStatus run(final IProgressMonitor monitor) {
+         final Set<IPath> changes;
+         final boolean fullBuild;
+         synchronized (pendingChanges) {
+            changes = new LinkedHashSet<>(pendingChanges);
+            pendingChanges.clear();
+            fullBuild = pendingFullBuild;
+            pendingFullBuild = false;
+         }
+
+         if (!project.isAccessible())
+            return Status.OK_STATUS;
+
+         Haxe4EPlugin.log().debug("Auto-building project [{0}] after changes of {1} file(s)...", project.getName(), //
+            String.valueOf(changes.size()));
+
+         try {
+            awaitProviderBuilds(monitor);
+         } catch (final OperationCanceledException ex) {
+            // build was preempted by newer changes while waiting, merge the changes into the next build
+         }
+
+         if (monitor.isCanceled()) {
+            mergePendingChanges(changes, fullBuild);
+            return Status.CANCEL_STATUS;
+         }
+
+         final var prefs = HaxeProjectPreference.get(project);
+         final var rule = HaxeBuilder.getBuildRule(prefs);
+         final var jobManager = Job.getJobManager();
+         try {
+            jobManager.beginRule(rule, monitor);
+            HaxeBuilder.buildProject(IncrementalProjectBuilder.AUTO_BUILD, project, prefs, fullBuild ? null : changes, monitor);
+         } catch (final CoreException ex) {
+            return ex.getStatus();
+         } catch (final OperationCanceledException ex) {
+            // canceled while waiting for the rule
+         } finally {
+            jobManager.endRule(rule);
+         }
+
+         if (monitor.isCanceled()) {
+            // build was preempted by newer changes, merge the changes into the next build
+            mergePendingChanges(changes, fullBuild);
+            return Status.CANCEL_STATUS;
+         }
+         return Status.OK_STATUS;
+      }
+
+      /**
+       * Waits until no auto-build of a project providing haxelibs to this project is pending or running. The provider graph is
+       * acyclic, thus auto-builds cannot wait for each other.
+       */
+      private void awaitProviderBuilds(final IProgressMonitor monitor) {
+         final var jobManager = Job.getJobManager();
+         for (final var provider : HaxeProjectGraph.INSTANCE.getProviders(project)) {
+            final var family = new ProjectFamily(provider);
+            // a provider build preempted by newer changes is rescheduled, so wait until no build is left
+            while (jobManager.find(family).length > 0) {
+               try {
+                  jobManager.join(family, monitor);
+               } catch (final InterruptedException ex) {
+                  Thread.currentThread().interrupt();
+                  return;
+               }
+            }
+         }
+      }
+
+      private void mergePendingChanges(final Set<IPath> changes, final boolean fullBuild) {
+         synchronized (pendingChanges) {
+            final var merged = new LinkedHashSet<>(changes);
+            merged.addAll(pendingChanges);
+            pendingChanges.clear();
+            pendingChanges.addAll(merged);
+            pendingFullBuild |= fullBuild;
+         }
+      }
+   }
+
+   public static final HaxeAutoBuildScheduler INSTANCE = new HaxeAutoBuildScheduler();
+
+   private final Map<IProject, AutoBuildJob> jobs = new HashMap<>();
+
+   private HaxeAutoBuildScheduler() {
+   }
+
+   /**
+    * Cancels all pending and running auto-builds.
+    */
+   public void cancelAll() {
+      final Collection<AutoBuildJob> jobsToCancel;
+      synchronized (jobs) {
+         jobsToCancel = new ArrayList<>(jobs.values());
+         jobs.clear();
+      }
+      jobsToCancel.forEach(Job::cancel);
+   }
+
+   /**
+    * Schedules an auto-build of the given project. A build that is already running is canceled and the given changes are merged with
+    * the changes not yet built.
+    *
+    * @param changes project relative paths of the changed files or null if unknown
+    */
+   public void schedule(final IProject project, final @Nullable Collection<IPath> changes) {
+      final AutoBuildJob job;
+      synchronized (jobs) {
+         job = jobs.computeIfAbsent(project, AutoBuildJob::new);
+      }
+
+      synchronized (job.pendingChanges) {
+         if (changes == null) {
+            job.pendingFullBuild = true;
+         } else {
+            job.pendingChanges.addAll(changes);
+         }
+      }
+
+      // preempt the running build, it will be rescheduled with the merged change set
+      job.cancel();
+      job.schedule(HaxeProjectPreference.get(project).getAutoBuildDelay());
+   }
+}
@@ -0,0 +1,436 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.builder;
+
+import static net.sf.jstuff.core.validation.NullAnalysisHelper.asNonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.Nullable;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.model.HaxeSDK;
+import org.haxe4e.model.Haxelib;
+import org.haxe4e.model.HaxelibJSON;
+import org.haxe4e.model.buildsystem.BuildFile;
+import org.haxe4e.model.buildsystem.HaxeBuildFile;
+import org.haxe4e.model.buildsystem.LixBuildFile;
+import org.haxe4e.prefs.HaxeProjectPreference;
+
+/**
+ * Remembers fingerprints of the effective inputs of the last successful build of each compilation unit so unchanged builds can be
+ * skipped, e.g. when files were touched or saved without net edits.
+ * <p>
+ * The fingerprint covers the Haxe SDK, the resolved compiler arguments, the resolved haxelibs and the content of all files located in
+ * the class paths of the build file except build artifacts. Additionally the existence, size and modification time of the unit's
+ * outputs after the build are recorded, so a build is not skipped if its outputs were deleted or overwritten meanwhile. Fingerprints
+ * are persisted in the plugin's state location and thus survive workbench restarts.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeBuildCache {
+
+   private record FileDigest(long size, long lastModified, byte[] digest) {
+   }
+
+   /**
+    * @param stamps modification times of the files the resolution depends on, e.g. the <code>.current</code> files of the haxelibs
+    */
+   private record ResolvedDependencies(String buildFileFingerprint, List<Haxelib> haxelibs, Map<Path, Long> stamps) {
+
+      boolean isValid(final String buildFileFingerprint) {
+         return this.buildFileFingerprint.equals(buildFileFingerprint) && isUnchanged(stamps);
+      }
+   }
+
+   public static final HaxeBuildCache INSTANCE = new HaxeBuildCache();
+
+   /**
+    * separates the fingerprint of the inputs from the fingerprint of the outputs in the persisted build state
+    */
+   private static final String OUTPUTS_SEPARATOR = "/";
+
+   /**
+    * @return project relative paths of the files and folders written by the compiler when building the given compilation unit
+    */
+   private static Set<IPath> getOutputPaths(final HaxeBuilder.CompilationUnit unit) {
+      final var args = unit.args();
+      if (args.contains("--no-output"))
+         return Set.of();
+      if (unit.buildFile() instanceof final HaxeBuildFile hxmlFile && !(args.size() == 1 && args.get(0).endsWith(".hxml")))
+         return hxmlFile.getOutputPaths(args);
+      return unit.buildFile().getOutputPaths();
+   }
+
+   /**
+    * @return the modification times of the files the resolution of the given haxelibs depends on, i.e. the haxelibs directory and the
+    *         <code>.current</code>, <code>.dev</code> and <code>haxelib.json</code> files of each haxelib
+    */
+   public static Map<Path, Long> getHaxelibStamps(final Path haxelibsDir, final Collection<Haxelib> haxelibs) {
+      final var stamps = new HashMap<Path, Long>();
+      stamps.put(haxelibsDir, lastModified(haxelibsDir)); // e.g. a missing haxelib was installed meanwhile
+      for (final var haxelib : haxelibs) {
+         final var libDir = haxelibsDir.resolve(haxelib.meta.name);
+         // e.g. another version of the haxelib was selected or a dev version was registered
+         for (final var file : List.of(libDir.resolve(".current"), libDir.resolve(".dev"), //
+            haxelib.location.resolve(HaxelibJSON.FILENAME))) {
+            stamps.put(file, lastModified(file));
+         }
+      }
+      return stamps;
+   }
+
+   /**
+    * @param stamps as returned by {@link #getHaxelibStamps(Path, Collection)}
+    * @return true if none of the given files was created, deleted or modified since the stamps were taken
+    */
+   public static boolean isUnchanged(final Map<Path, Long> stamps) {
+      for (final var stamp : stamps.entrySet()) {
+         if (lastModified(stamp.getKey()) != stamp.getValue())
+            return false;
+      }
+      return true;
+   }
+
+   /**
+    * @return the modification time of the given file or <code>-1</code> if it does not exist
+    */
+   private static long lastModified(final Path file) {
+      try {
+         return Files.getLastModifiedTime(file).toMillis();
+      } catch (final IOException ex) {
+         return -1;
+      }
+   }
+
+   private static MessageDigest newDigest() {
+      try {
+         return MessageDigest.getInstance("SHA-256");
+      } catch (final NoSuchAlgorithmException ex) {
+         throw new IllegalStateException(ex);
+      }
+   }
+
+   /**
+    * content digests of source files, only recomputed if file size or modification time change
+    */
+   private final Map<Path, FileDigest> fileDigests = new ConcurrentHashMap<>();
+
+   /**
+    * resolved haxelibs per build file, resolving them is expensive as it requires parsing the haxelib.json files of all dependencies
+    */
+   private final Map<IFile, ResolvedDependencies> dependencies = new ConcurrentHashMap<>();
+
+   /**
+    * fingerprints of the last successful build per project and compilation unit
+    */
+   private final Map<IProject, Properties> fingerprintsByProject = new HashMap<>();
+
+   private HaxeBuildCache() {
+   }
+
+   /**
+    * @return a fingerprint of everything the resolution of the given build file's haxelibs depends on besides the haxelib
+    *         installation, i.e. the SDK and the content of the build files
+    */
+   private String computeBuildFileFingerprint(final HaxeSDK haxeSDK, final BuildFile buildFile) throws IOException {
+      final var digest = newDigest();
+      update(digest, "sdk", haxeSDK.getInstallRoot().toString(), haxeSDK.getVersion());
+      for (final var file : buildFile.getBuildFiles()) {
+         final var fileLoc = file.getLocation();
+         if (fileLoc != null && Files.isRegularFile(fileLoc.toFile().toPath())) {
+            update(digest, "file", file.getFullPath());
+            digestFile(digest, fileLoc.toFile().toPath());
+         }
+      }
+
+      // lix resolves the haxelibs via the lock files of the project
+      final var projectLoc = buildFile.getProject().getLocation();
+      if (buildFile instanceof LixBuildFile && projectLoc != null) {
+         digestDirectory(digest, projectLoc.toFile().toPath().resolve("haxe_libraries"), path -> false);
+      }
+      return HexFormat.of().formatHex(digest.digest());
+   }
+
+   /**
+    * @return the fingerprint of the effective inputs of the given compilation unit or null if it could not be computed
+    */
+   public @Nullable String computeFingerprint(final HaxeSDK haxeSDK, final HaxeBuilder.CompilationUnit unit,
+         final IProgressMonitor monitor) {
+      final var project = unit.buildFile().getProject();
+      final var projectLoc = project.getLocation();
+      if (projectLoc == null)
+         return null;
+
+      final var digest = newDigest();
+      try {
+         update(digest, "sdk", haxeSDK.getInstallRoot().toString(), haxeSDK.getVersion());
+
+         // build file arguments incl. included build files
+         update(digest, "args", unit.args());
+         if (unit.buildFile() instanceof final HaxeBuildFile hxmlFile) {
+            update(digest, "hxml", hxmlFile.getExpandedArgs());
+         } else {
+            final var buildFileLoc = unit.buildFile().location.getLocation();
+            if (buildFileLoc != null) {
+               digestFile(digest, buildFileLoc.toFile().toPath());
+            }
+         }
+
+         // resolved haxelibs
+         for (final Haxelib haxelib : getDependencies(haxeSDK, unit.buildFile(), monitor)) {
+            update(digest, "lib", haxelib.meta.name, haxelib.meta.version, haxelib.location.toString());
+            if (haxelib.isDevVersion) {
+               // content of dev haxelibs may change at any time
+               digestDirectory(digest, haxelib.location, path -> false);
+            }
+         }
+
+         // source files, skipping build artifacts located in the class paths
+         final var projectDir = projectLoc.toFile().toPath();
+         final var sourcePaths = unit.buildFile().getSourcePaths();
+         final var relevanceIndex = HaxeBuildRelevanceIndex.get(project, HaxeProjectPreference.get(project));
+         final var outputPaths = getOutputPaths(unit).stream() //
+            .filter(outputPath -> !outputPath.isEmpty() && sourcePaths.stream().noneMatch(outputPath::isPrefixOf)) //
+            .toList();
+         final Predicate<Path> isExcluded = path -> {
+            if (!path.startsWith(projectDir))
+               return false; // e.g. class path located outside of the project
+            final var projectRelativePath = org.eclipse.core.runtime.Path.fromOSString(projectDir.relativize(path).toString());
+            if (sourcePaths.stream().anyMatch(projectRelativePath::isPrefixOf))
+               return false; // a class path itself or one of its parent folders
+            return relevanceIndex.isExcluded(projectRelativePath) //
+                  || outputPaths.stream().anyMatch(outputPath -> outputPath.isPrefixOf(projectRelativePath));
+         };
+         for (final var sourcePath : sourcePaths) {
+            digestDirectory(digest, projectDir.resolve(sourcePath.toOSString()), isExcluded);
+         }
+      } catch (final IOException | RuntimeException ex) {
+         Haxe4EPlugin.log().debug(ex);
+         return null;
+      }
+      return HexFormat.of().formatHex(digest.digest());
+   }
+
+   /**
+    * @return a fingerprint of the current state of the outputs of the given compilation unit or null if it could not be computed
+    */
+   private @Nullable String computeOutputsFingerprint(final HaxeBuilder.CompilationUnit unit) {
+      final var projectLoc = unit.buildFile().getProject().getLocation();
+      if (projectLoc == null)
+         return null;
+
+      final var projectDir = projectLoc.toFile().toPath();
+      final var digest = newDigest();
+      try {
+         for (final var outputPath : getOutputPaths(unit)) {
+            final var output = projectDir.resolve(outputPath.toOSString());
+            if (Files.exists(output)) {
+               update(digest, "output", outputPath, Files.isDirectory(output) ? -1 : Files.size(output), //
+                  Files.getLastModifiedTime(output).toMillis());
+            } else {
+               update(digest, "missing", outputPath);
+            }
+         }
+      } catch (final IOException | RuntimeException ex) {
+         Haxe4EPlugin.log().debug(ex);
+         return null;
+      }
+      return HexFormat.of().formatHex(digest.digest());
+   }
+
+   /**
+    * @param isExcluded files and folders for which true is returned are skipped, e.g. build artifacts
+    */
+   private void digestDirectory(final MessageDigest digest, final Path dir, final Predicate<Path> isExcluded) throws IOException {
+      if (!Files.isDirectory(dir))
+         return;
+
+      final var files = new ArrayList<Path>();
+      Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+         @Override
+         public FileVisitResult preVisitDirectory(final Path subDir, final BasicFileAttributes attrs) throws IOException {
+            return isExcluded.test(subDir) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+         }
+
+         @Override
+         public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+            if (Files.isRegularFile(file) && !isExcluded.test(file)) {
+               files.add(file);
+            }
+            return FileVisitResult.CONTINUE;
+         }
+      });
+      files.sort(Comparator.naturalOrder());
+      for (final var file : files) {
+         update(digest, "file", dir.relativize(file).toString());
+         digestFile(digest, file);
+      }
+   }
+
+   private void digestFile(final MessageDigest digest, final Path file) throws IOException {
+      final var size = Files.size(file);
+      final var lastModified = Files.getLastModifiedTime(file).toMillis();
+      var fileDigest = fileDigests.get(file);
+      if (fileDigest == null || fileDigest.size != size || fileDigest.lastModified != lastModified) {
+         final var contentDigest = newDigest();
+         try (InputStream in = Files.newInputStream(file)) {
+            final var buf = new byte[16 * 1024];
+            int read;
+            while ((read = in.read(buf)) != -1) {
+               contentDigest.update(buf, 0, read);
+            }
+         }
+         fileDigest = new FileDigest(size, lastModified, contentDigest.digest());
+         fileDigests.put(file, fileDigest);
+      }
+      digest.update(fileDigest.digest);
+   }
+
+   /**
+    * @return the haxelibs the given build file depends on, only resolved again if the build file or the haxelib installation changed
+    */
+   private List<Haxelib> getDependencies(final HaxeSDK haxeSDK, final BuildFile buildFile, final IProgressMonitor monitor)
+         throws IOException {
+      final var buildFileFingerprint = computeBuildFileFingerprint(haxeSDK, buildFile);
+      final var cached = dependencies.get(buildFile.location);
+      if (cached != null && cached.isValid(buildFileFingerprint))
+         return cached.haxelibs;
+
+      final var haxelibs = new ArrayList<>(buildFile.getDependencies(haxeSDK, monitor));
+      haxelibs.sort(Comparator.naturalOrder());
+
+      final var stamps = getHaxelibStamps(haxeSDK.getHaxelibsDir(), haxelibs);
+      final var resolved = new ResolvedDependencies(buildFileFingerprint, List.copyOf(haxelibs), stamps);
+      dependencies.put(buildFile.location, resolved);
+      return resolved.haxelibs;
+   }
+
+   private Path getCacheFile(final IProject project) {
+      return Haxe4EPlugin.get().getStateLocation().toFile().toPath().resolve("build-cache").resolve(project.getName() + ".properties");
+   }
+
+   private Properties getFingerprints(final IProject project) {
+      synchronized (fingerprintsByProject) {
+         return fingerprintsByProject.computeIfAbsent(project, p -> {
+            final var props = new Properties();
+            final var cacheFile = getCacheFile(p);
+            if (Files.exists(cacheFile)) {
+               try (InputStream in = Files.newInputStream(cacheFile)) {
+                  props.load(in);
+               } catch (final IOException ex) {
+                  Haxe4EPlugin.log().error(ex);
+               }
+            }
+            return props;
+         });
+      }
+   }
+
+   /**
+    * Removes all fingerprints of the given project, e.g. on clean builds.
+    */
+   public void invalidate(final IProject project) {
+      final var fingerprints = getFingerprints(project);
+      synchronized (fingerprints) {
+         fingerprints.clear();
+         save(project, fingerprints);
+      }
+   }
+
+   public void invalidate(final IProject project, final String unitKey) {
+      final var fingerprints = getFingerprints(project);
+      synchronized (fingerprints) {
+         if (fingerprints.remove(unitKey) != null) {
+            save(project, fingerprints);
+         }
+      }
+   }
+
+   /**
+    * @return true if the last successful build of the given compilation unit was executed with the same inputs and its outputs were
+    *         not deleted or modified since then
+    */
+   public boolean isUpToDate(final HaxeBuilder.CompilationUnit unit, final String fingerprint) {
+      final var fingerprints = getFingerprints(unit.buildFile().getProject());
+      final String buildState;
+      synchronized (fingerprints) {
+         buildState = fingerprints.getProperty(unit.getKey());
+      }
+      if (buildState == null || !buildState.startsWith(fingerprint + OUTPUTS_SEPARATOR))
+         return false;
+
+      final var outputsFingerprint = computeOutputsFingerprint(unit);
+      return outputsFingerprint != null && buildState.equals(fingerprint + OUTPUTS_SEPARATOR + outputsFingerprint);
+   }
+
+   /**
+    * Records the given fingerprint of the inputs and the current state of the outputs of the given compilation unit. Must be called
+    * after the compiler wrote the outputs.
+    */
+   public void markSuccessful(final HaxeBuilder.CompilationUnit unit, final String fingerprint) {
+      final var project = unit.buildFile().getProject();
+      final var outputsFingerprint = computeOutputsFingerprint(unit);
+      if (outputsFingerprint == null) {
+         invalidate(project, unit.getKey());
+         return;
+      }
+
+      final var buildState = fingerprint + OUTPUTS_SEPARATOR + outputsFingerprint;
+      final var fingerprints = getFingerprints(project);
+      synchronized (fingerprints) {
+         if (!buildState.equals(fingerprints.setProperty(unit.getKey(), buildState))) {
+            save(project, fingerprints);
+         }
+      }
+   }
+
+   private void save(final IProject project, final Properties fingerprints) {
+      final var cacheFile = getCacheFile(project);
+      try {
+         Files.createDirectories(asNonNull(cacheFile.getParent()));
+         try (OutputStream out = Files.newOutputStream(cacheFile)) {
+            fingerprints.store(out, "Haxe4E build fingerprints of project " + project.getName());
+         }
+      } catch (final IOException ex) {
+         Haxe4EPlugin.log().error(ex);
+      }
+   }
+
+   private void update(final MessageDigest digest, final String type, final @Nullable Object... values) {
+      digest.update(type.getBytes(StandardCharsets.UTF_8));
+      for (final var value : values) {
+         digest.update((byte) 0);
+         digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+      }
+      digest.update((byte) '\n');
+   }
+}
@@ -0,0 +1,130 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.builder;
+
+import java.util.Collection;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.MultiRule;
+import org.eclipse.jdt.annotation.Nullable;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.model.buildsystem.BuildFile;
+
+/**
+ * Refreshes the files and folders written by the compiler, so the workspace picks them up immediately instead of via polling, and
+ * marks them as derived, so they are excluded from searches, validation and team operations.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeBuildOutputs {
+
+   /**
+    * @return the resource of the given output path or null if the output is located outside of the project
+    */
+   private static @Nullable IResource getOutputResource(final IProject project, final IPath outputPath) {
+      final var projectLoc = project.getLocation();
+      if (projectLoc == null || outputPath.isEmpty() || "..".equals(outputPath.segment(0)))
+         return null;
+      return projectLoc.append(outputPath).toFile().isDirectory() //
+            ? project.getFolder(outputPath)
+            : project.getFile(outputPath);
+   }
+
+   /**
+    * @return the scheduling rule required to refresh the outputs declared by the given build file
+    */
+   public static @Nullable ISchedulingRule getRefreshRule(final BuildFile buildFile) {
+      final var project = buildFile.location.getProject();
+      final var ruleFactory = ResourcesPlugin.getWorkspace().getRuleFactory();
+      try {
+         ISchedulingRule rule = null;
+         for (final var outputPath : buildFile.getOutputPaths()) {
+            final var output = getOutputResource(project, outputPath);
+            if (output != null) {
+               rule = MultiRule.combine(rule, ruleFactory.refreshRule(getResourceToRefresh(output)));
+            }
+         }
+         return rule;
+      } catch (final RuntimeException ex) {
+         Haxe4EPlugin.log().debug(ex);
+         return project;
+      }
+   }
+
+   /**
+    * @return the top-most resource of the given output not yet known to the workspace, as refreshing requires an existing parent
+    */
+   private static IResource getResourceToRefresh(final IResource output) {
+      IResource toRefresh = output;
+      @Nullable IContainer parent = toRefresh.getParent();
+      while (parent != null && !parent.exists() && parent.getType() != IResource.PROJECT) {
+         toRefresh = parent;
+         parent = toRefresh.getParent();
+      }
+      return toRefresh;
+   }
+
+   /**
+    * Refreshes the outputs declared by the given build file.
+    */
+   public static void refresh(final BuildFile buildFile, final IProgressMonitor monitor) {
+      try {
+         refresh(buildFile.location.getProject(), buildFile.getOutputPaths(), monitor);
+      } catch (final RuntimeException ex) {
+         Haxe4EPlugin.log().error(ex);
+      }
+   }
+
+   /**
+    * @param outputPaths project relative paths of the files and folders written by the compiler
+    */
+   public static void refresh(final IProject project, final Collection<IPath> outputPaths, final IProgressMonitor monitor) {
+      if (!project.isAccessible())
+         return;
+
+      final var ruleFactory = ResourcesPlugin.getWorkspace().getRuleFactory();
+      final var currentRule = Job.getJobManager().currentRule();
+      for (final var outputPath : outputPaths) {
+         if (monitor.isCanceled())
+            return;
+
+         final var output = getOutputResource(project, outputPath);
+         if (output == null) {
+            continue; // output is located outside of the project
+         }
+
+         final var toRefresh = getResourceToRefresh(output);
+         final var refreshRule = ruleFactory.refreshRule(toRefresh);
+         if (currentRule != null && refreshRule != null && !currentRule.contains(refreshRule)) {
+            // the outputs changed since the rule of the running build was determined, they are picked up by the next build
+            Haxe4EPlugin.log().debug("Skipping refresh of [{0}] not covered by the current scheduling rule.", //
+               toRefresh.getFullPath().toString());
+            continue;
+         }
+
+         try {
+            toRefresh.refreshLocal(IResource.DEPTH_INFINITE, monitor);
+            if (output.exists() && !output.isDerived()) {
+               output.setDerived(true, monitor);
+            }
+         } catch (final CoreException ex) {
+            Haxe4EPlugin.log().error(ex);
+         }
+      }
+   }
+
+   private HaxeBuildOutputs() {
+   }
+}
@@ -0,0 +1,223 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.builder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.annotation.Nullable;
+import org.haxe4e.Constants;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.model.HaxelibJSON;
+import org.haxe4e.model.buildsystem.BuildFile;
+import org.haxe4e.model.buildsystem.LixVirtualBuildFile;
+import org.haxe4e.navigation.HaxeDependenciesUpdater;
+import org.haxe4e.prefs.HaxeProjectPreference;
+
+/**
+ * Determines which resource changes of a project are relevant for the compiler, i.e. changes of files located in the class paths of
+ * the configured build files or of the build files themselves (incl. included build files). Changes of files written by the compiler
+ * are ignored.
+ * <p>
+ * The index is rebuilt when the configured build files change or when one of the indexed build files is modified.
+ *
+ * @author Sebastian Thomschke
+ */
+final class HaxeBuildRelevanceIndex {
+
+   private static final Map<IProject, HaxeBuildRelevanceIndex> INDEXES = new WeakHashMap<>();
+
+   /**
+    * @return an up-to-date relevance index for the given project
+    */
+   static HaxeBuildRelevanceIndex get(final IProject project, final HaxeProjectPreference prefs) {
+      final var configuredBuildFiles = getConfiguredBuildFiles(prefs);
+      synchronized (INDEXES) {
+         var index = INDEXES.get(project);
+         if (index == null || !index.isValid(configuredBuildFiles)) {
+            index = new HaxeBuildRelevanceIndex(prefs, configuredBuildFiles);
+            INDEXES.put(project, index);
+         }
+         return index;
+      }
+   }
+
+   private static List<BuildFile> getConfiguredBuildFiles(final HaxeProjectPreference prefs) {
+      final var buildFiles = new LinkedHashMap<IFile, BuildFile>();
+      final var buildFile = prefs.getBuildFile();
+      if (buildFile != null) {
+         buildFiles.put(buildFile.location, buildFile);
+      }
+      if (prefs.isParallelBuild()) {
+         prefs.getAdditionalBuildFiles().forEach(f -> buildFiles.putIfAbsent(f.location, f));
+      }
+      return new ArrayList<>(buildFiles.values());
+   }
+
+   private static boolean isPrefixOfAny(final Set<IPath> paths, final IPath path) {
+      for (final var p : paths) {
+         if (p.isPrefixOf(path))
+            return true;
+      }
+      return false;
+   }
+
+   private final String buildFileExtension;
+   private final List<IFile> configuredBuildFiles = new ArrayList<>();
+
+   /**
+    * modification stamps of all indexed build files, used to detect if the index is outdated
+    */
+   private final Map<IFile, Long> buildFileStamps = new HashMap<>();
+   private final Set<IPath> buildFilePaths = new LinkedHashSet<>();
+   private final Set<IPath> outputPaths = new LinkedHashSet<>();
+   private final Set<IPath> sourcePaths = new LinkedHashSet<>();
+
+   /**
+    * true if no reliable information could be extracted from the build files and the legacy heuristic shall be used
+    */
+   private boolean useFallback;
+
+   private HaxeBuildRelevanceIndex(final HaxeProjectPreference prefs, final List<BuildFile> buildFiles) {
+      buildFileExtension = prefs.getBuildSystem().getBuildFileExtension();
+      for (final var buildFile : buildFiles) {
+         configuredBuildFiles.add(buildFile.location);
+         if (buildFile instanceof LixVirtualBuildFile) {
+            useFallback = true;
+            continue;
+         }
+         try {
+            for (final var file : buildFile.getBuildFiles()) {
+               buildFileStamps.put(file, file.getModificationStamp());
+               buildFilePaths.add(file.getProjectRelativePath());
+            }
+            outputPaths.addAll(buildFile.getOutputPaths());
+            sourcePaths.addAll(buildFile.getSourcePaths());
+         } catch (final RuntimeException ex) {
+            Haxe4EPlugin.log().debug(ex);
+            useFallback = true;
+         }
+      }
+      if (sourcePaths.isEmpty()) {
+         useFallback = true;
+      }
+
+      // an output written into the project root or a folder containing inputs, e.g. "-cpp .", must not exclude the inputs
+      outputPaths.removeIf(outputPath -> outputPath.isEmpty() || outputPath.isRoot() //
+            || sourcePaths.stream().anyMatch(outputPath::isPrefixOf) //
+            || buildFilePaths.stream().anyMatch(outputPath::isPrefixOf));
+   }
+
+   /**
+    * @return false if the given folder and its members are irrelevant for the compiler
+    */
+   boolean isRelevantFolder(final IPath projectRelativePath) {
+      if (isExcluded(projectRelativePath))
+         return false;
+      if (useFallback)
+         return true;
+      // the folder may be located in or contain a class path
+      for (final var sourcePath : sourcePaths) {
+         if (sourcePath.isPrefixOf(projectRelativePath) || projectRelativePath.isPrefixOf(sourcePath))
+            return true;
+      }
+      // the folder may contain a build file
+      for (final var buildFilePath : buildFilePaths) {
+         if (projectRelativePath.isPrefixOf(buildFilePath))
+            return true;
+      }
+      return false;
+   }
+
+   /**
+    * @return true if changes to the given file shall trigger a build
+    */
+   boolean isRelevantFile(final IPath projectRelativePath, final @Nullable String fileExtension) {
+      if (isExcluded(projectRelativePath))
+         return false;
+
+      if (buildFilePaths.contains(projectRelativePath) || buildFileExtension.equals(fileExtension))
+         return true;
+
+      if (projectRelativePath.segmentCount() == 1 && HaxelibJSON.FILENAME.equals(projectRelativePath.lastSegment()))
+         return true; // dependencies may have changed
+
+      if (useFallback) {
+         switch (fileExtension == null ? "" : fileExtension) {
+            case Constants.HAXE_FILE_EXTENSION:
+            case "json":
+            case "xml":
+               return true;
+            default:
+               return false;
+         }
+      }
+
+      // any file in a class path may be a compiler input, e.g. resources embedded via macros
+      return isPrefixOfAny(sourcePaths, projectRelativePath);
+   }
+
+   /**
+    * @return true if the given file or folder is never a compiler input, e.g. because it is a build artifact
+    */
+   boolean isExcluded(final IPath projectRelativePath) {
+      final var firstSegment = projectRelativePath.segment(0);
+      if (firstSegment == null)
+         return false;
+
+      switch (firstSegment) {
+         case HaxeDependenciesUpdater.STDLIB_MAGIC_FOLDER_NAME:
+            // don't auto build if changes in stdlib occur
+         case HaxeDependenciesUpdater.DEPS_MAGIC_FOLDER_NAME:
+            // don't auto build if changes in other projects occur, this could result in endless circular builds
+         case ".github":
+            return true;
+         default:
+            break;
+      }
+
+      if (useFallback) {
+         switch (firstSegment) {
+            case "hxformat.json":
+            case "bin":
+            case "build":
+            case "dump":
+            case "output":
+            case "target":
+               return true; // ignore build artifacts
+            default:
+               break;
+         }
+      }
+
+      // ignore build artifacts
+      return isPrefixOfAny(outputPaths, projectRelativePath);
+   }
+
+   private boolean isValid(final List<BuildFile> currentBuildFiles) {
+      if (currentBuildFiles.size() != configuredBuildFiles.size())
+         return false;
+      for (int i = 0; i < currentBuildFiles.size(); i++) {
+         if (!currentBuildFiles.get(i).location.equals(configuredBuildFiles.get(i)))
+            return false;
+      }
+      for (final var entry : buildFileStamps.entrySet()) {
+         if (entry.getKey().getModificationStamp() != entry.getValue())
+            return false;
+      }
+      return true;
+   }
+}
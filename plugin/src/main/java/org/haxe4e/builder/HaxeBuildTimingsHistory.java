@@ -0,0 +1,191 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.builder;
+
+import static net.sf.jstuff.core.validation.NullAnalysisHelper.asNonNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.annotation.Nullable;
+import org.haxe4e.Haxe4EPlugin;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Per-project history of the compiler timings collected by builds executed with <code>--times</code>. The history is persisted in the
+ * plugin's state location so regressions between commits can be spotted.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeBuildTimingsHistory {
+
+   /**
+    * @param timestamp epoch millis of the build's end
+    * @param unit the build file/compilation unit that was built
+    * @param commit the abbreviated VCS commit the project was on, if known
+    * @param totalSeconds total compilation time or <code>-1</code> if not reported
+    */
+   public record Report(long timestamp, String unit, @Nullable String commit, double totalSeconds, List<HaxeCompilerTimes.Entry> entries) {
+   }
+
+   public static final HaxeBuildTimingsHistory INSTANCE = new HaxeBuildTimingsHistory();
+
+   private static final int MAX_REPORTS_PER_PROJECT = 100;
+
+   private static final ObjectMapper JSON = new ObjectMapper() //
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+   /**
+    * @return the abbreviated Git commit id the project is currently on or null if not a Git repository
+    */
+   private static @Nullable String getGitCommit(final IProject project) {
+      final var projectLoc = project.getLocation();
+      if (projectLoc == null)
+         return null;
+
+      try {
+         for (var dir = projectLoc.toFile().toPath(); dir != null; dir = dir.getParent()) {
+            final var gitDir = dir.resolve(".git");
+            if (!Files.isDirectory(gitDir)) {
+               continue;
+            }
+
+            final var head = Files.readString(gitDir.resolve("HEAD"), StandardCharsets.UTF_8).trim();
+            if (!head.startsWith("ref: "))
+               return abbreviate(head);
+
+            final var ref = head.substring("ref: ".length());
+            final var refFile = gitDir.resolve(ref);
+            if (Files.exists(refFile))
+               return abbreviate(Files.readString(refFile, StandardCharsets.UTF_8).trim());
+
+            final var packedRefs = gitDir.resolve("packed-refs");
+            if (Files.exists(packedRefs)) {
+               for (final var line : Files.readAllLines(packedRefs, StandardCharsets.UTF_8)) {
+                  if (line.endsWith(" " + ref))
+                     return abbreviate(line.substring(0, line.indexOf(' ')));
+               }
+            }
+            return null;
+         }
+      } catch (final IOException ex) {
+         Haxe4EPlugin.log().debug(ex);
+      }
+      return null;
+   }
+
+   private static String abbreviate(final String commitId) {
+      return commitId.length() > 8 ? commitId.substring(0, 8) : commitId;
+   }
+
+   private final Map<IProject, List<Report>> reportsByProject = new HashMap<>();
+   private final List<Consumer<IProject>> listeners = new CopyOnWriteArrayList<>();
+
+   private HaxeBuildTimingsHistory() {
+   }
+
+   public void addListener(final Consumer<IProject> listener) {
+      listeners.add(listener);
+   }
+
+   public void removeListener(final Consumer<IProject> listener) {
+      listeners.remove(listener);
+   }
+
+   public void add(final IProject project, final String unit, final HaxeCompilerTimes.Parser timings) {
+      final var entries = timings.getEntries();
+      if (entries.isEmpty())
+         return;
+
+      final var report = new Report(System.currentTimeMillis(), unit, getGitCommit(project), timings.getTotalSeconds(), entries);
+      final List<Report> reports;
+      synchronized (reportsByProject) {
+         reports = getReportsInternal(project);
+         reports.add(report);
+         while (reports.size() > MAX_REPORTS_PER_PROJECT) {
+            reports.remove(0);
+         }
+         save(project, reports);
+      }
+      listeners.forEach(l -> l.accept(project));
+   }
+
+   public void clear(final IProject project) {
+      synchronized (reportsByProject) {
+         final var reports = getReportsInternal(project);
+         reports.clear();
+         save(project, reports);
+      }
+      listeners.forEach(l -> l.accept(project));
+   }
+
+   private Path getHistoryFile(final IProject project) {
+      return Haxe4EPlugin.get().getStateLocation().toFile().toPath().resolve("build-timings").resolve(project.getName() + ".json");
+   }
+
+   /**
+    * @return the build that preceded the given build of the same compilation unit or null if none
+    */
+   public @Nullable Report getPrevious(final IProject project, final Report report) {
+      final var reports = getReports(project);
+      @Nullable
+      Report previous = null;
+      for (final var r : reports) {
+         if (r == report)
+            return previous;
+         if (r.unit.equals(report.unit)) {
+            previous = r;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * @return the recorded builds of the given project, oldest first
+    */
+   public List<Report> getReports(final IProject project) {
+      synchronized (reportsByProject) {
+         return List.copyOf(getReportsInternal(project));
+      }
+   }
+
+   private List<Report> getReportsInternal(final IProject project) {
+      return reportsByProject.computeIfAbsent(project, p -> {
+         final var historyFile = getHistoryFile(p);
+         if (Files.exists(historyFile)) {
+            try {
+               return new ArrayList<>(JSON.readValue(historyFile.toFile(), new TypeReference<List<Report>>() {}));
+            } catch (final IOException ex) {
+               Haxe4EPlugin.log().error(ex);
+            }
+         }
+         return new ArrayList<>();
+      });
+   }
+
+   private void save(final IProject project, final List<Report> reports) {
+      final var historyFile = getHistoryFile(project);
+      try {
+         Files.createDirectories(asNonNull(historyFile.getParent()));
+         JSON.writeValue(historyFile.toFile(), reports);
+      } catch (final IOException ex) {
+         Haxe4EPlugin.log().error(ex);
+      }
+   }
+}
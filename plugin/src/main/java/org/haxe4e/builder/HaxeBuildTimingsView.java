@@ -0,0 +1,231 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.builder;
+
+import static net.sf.jstuff.core.validation.NullAnalysisHelper.lateNonNull;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.jface.layout.GridLayoutFactory;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.TableViewerColumn;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerComparator;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Combo;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.ui.part.ViewPart;
+import org.haxe4e.builder.HaxeBuildTimingsHistory.Report;
+import org.haxe4e.builder.HaxeCompilerTimes.Entry;
+import org.haxe4e.project.HaxeProjectNature;
+
+import de.sebthom.eclipse.commons.ui.UI;
+
+/**
+ * Shows the compiler timings of builds executed with <code>--times</code> broken down by phase, module and macro, including the change
+ * compared to the previous build of the same compilation unit.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeBuildTimingsView extends ViewPart {
+
+   /**
+    * This value is configured in plugin.xml
+    */
+   public static final String ID = HaxeBuildTimingsView.class.getName();
+
+   private final class SortingComparator extends ViewerComparator {
+      Comparator<Entry> comparator = Comparator.comparingDouble(Entry::seconds).reversed();
+
+      @Override
+      public int compare(final @Nullable Viewer viewer, final @Nullable Object e1, final @Nullable Object e2) {
+         return comparator.compare((Entry) e1, (Entry) e2);
+      }
+   }
+
+   private Combo cmbProject = lateNonNull();
+   private Combo cmbReport = lateNonNull();
+   private TableViewer table = lateNonNull();
+   private final SortingComparator sorter = new SortingComparator();
+
+   private final List<IProject> projects = new ArrayList<>();
+   private List<Report> reports = List.of();
+   private Map<String, Double> previousSecondsByPath = Map.of();
+
+   private final Consumer<IProject> onHistoryChanged = project -> UI.runAsync(() -> {
+      if (!cmbProject.isDisposed()) {
+         refreshProjects();
+      }
+   });
+
+   private void addColumn(final String title, final int width, final int style, final Function<Entry, String> text,
+         final Comparator<Entry> comparator) {
+      final var col = new TableViewerColumn(table, style);
+      col.getColumn().setText(title);
+      col.getColumn().setWidth(width);
+      col.setLabelProvider(new ColumnLabelProvider() {
+         @Override
+         public String getText(final @Nullable Object element) {
+            return text.apply((Entry) element);
+         }
+      });
+      col.getColumn().addListener(SWT.Selection, ev -> {
+         final var swtTable = table.getTable();
+         if (swtTable.getSortColumn() == col.getColumn()) {
+            swtTable.setSortDirection(swtTable.getSortDirection() == SWT.UP ? SWT.DOWN : SWT.UP);
+         } else {
+            swtTable.setSortColumn(col.getColumn());
+            swtTable.setSortDirection(SWT.UP);
+         }
+         sorter.comparator = swtTable.getSortDirection() == SWT.UP ? comparator : comparator.reversed();
+         table.refresh();
+      });
+   }
+
+   @Override
+   public void createPartControl(final Composite parent) {
+      parent.setLayout(GridLayoutFactory.fillDefaults().numColumns(4).create());
+
+      new Label(parent, SWT.NONE).setText("Project:");
+      cmbProject = new Combo(parent, SWT.READ_ONLY);
+      cmbProject.addListener(SWT.Selection, ev -> refreshReports());
+
+      new Label(parent, SWT.NONE).setText("Build:");
+      cmbReport = new Combo(parent, SWT.READ_ONLY);
+      cmbReport.setLayoutData(GridDataFactory.fillDefaults().grab(true, false).create());
+      cmbReport.addListener(SWT.Selection, ev -> refreshTable());
+
+      table = new TableViewer(parent, SWT.BORDER | SWT.FULL_SELECTION | SWT.V_SCROLL | SWT.H_SCROLL);
+      table.getTable().setLayoutData(GridDataFactory.fillDefaults().span(4, 1).grab(true, true).create());
+      table.getTable().setHeaderVisible(true);
+      table.getTable().setLinesVisible(true);
+      table.setContentProvider(ArrayContentProvider.getInstance());
+      table.setComparator(sorter);
+
+      addColumn("Phase", 100, SWT.NONE, Entry::phase, Comparator.comparing(Entry::phase));
+      addColumn("Timer", 300, SWT.NONE, e -> "  ".repeat(e.depth()) + e.path(), Comparator.comparing(Entry::path));
+      addColumn("Module / Macro", 250, SWT.NONE, Entry::info, Comparator.comparing(Entry::info));
+      addColumn("Time (s)", 80, SWT.RIGHT, e -> String.format("%.3f", e.seconds()), Comparator.comparingDouble(Entry::seconds));
+      addColumn("%", 50, SWT.RIGHT, e -> String.valueOf(e.percent()), Comparator.comparingInt(Entry::percent));
+      addColumn("Count", 60, SWT.RIGHT, e -> String.valueOf(e.count()), Comparator.comparingInt(Entry::count));
+      addColumn("Δ Previous (s)", 100, SWT.RIGHT, e -> {
+         final var previous = previousSecondsByPath.get(e.path() + "|" + e.info());
+         return previous == null ? "" : String.format("%+.3f", e.seconds() - previous);
+      }, Comparator.comparingDouble(e -> {
+         final var previous = previousSecondsByPath.get(e.path() + "|" + e.info());
+         return previous == null ? 0 : e.seconds() - previous;
+      }));
+
+      final var clearHistory = new Action("Clear History") {
+         @Override
+         public void run() {
+            final var project = getSelectedProject();
+            if (project != null) {
+               HaxeBuildTimingsHistory.INSTANCE.clear(project);
+            }
+         }
+      };
+      getViewSite().getActionBars().getMenuManager().add(clearHistory);
+
+      HaxeBuildTimingsHistory.INSTANCE.addListener(onHistoryChanged);
+      refreshProjects();
+   }
+
+   @Override
+   public void dispose() {
+      HaxeBuildTimingsHistory.INSTANCE.removeListener(onHistoryChanged);
+      super.dispose();
+   }
+
+   private @Nullable IProject getSelectedProject() {
+      final var idx = cmbProject.getSelectionIndex();
+      return idx < 0 ? null : projects.get(idx);
+   }
+
+   private void refreshProjects() {
+      final var selectedProject = getSelectedProject();
+      projects.clear();
+      cmbProject.removeAll();
+      for (final var project : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
+         if (HaxeProjectNature.hasNature(project) && !HaxeBuildTimingsHistory.INSTANCE.getReports(project).isEmpty()) {
+            projects.add(project);
+            cmbProject.add(project.getName());
+         }
+      }
+      if (!projects.isEmpty()) {
+         cmbProject.select(Math.max(0, selectedProject == null ? 0 : projects.indexOf(selectedProject)));
+      }
+      refreshReports();
+      cmbProject.getParent().layout();
+   }
+
+   private void refreshReports() {
+      final var project = getSelectedProject();
+      cmbReport.removeAll();
+      final var newestFirst = new ArrayList<Report>();
+      if (project != null) {
+         newestFirst.addAll(HaxeBuildTimingsHistory.INSTANCE.getReports(project));
+         Collections.reverse(newestFirst);
+      }
+      reports = newestFirst;
+      final var dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+      for (final var report : reports) {
+         final var commit = report.commit();
+         cmbReport.add(dateFormat.format(new Date(report.timestamp())) //
+               + " - " + report.unit() //
+               + (commit == null ? "" : " @ " + commit) //
+               + (report.totalSeconds() < 0 ? "" : String.format(" (%.3f s)", report.totalSeconds())));
+      }
+      if (!reports.isEmpty()) {
+         cmbReport.select(0);
+      }
+      refreshTable();
+   }
+
+   private void refreshTable() {
+      final var project = getSelectedProject();
+      final var idx = cmbReport.getSelectionIndex();
+      if (project == null || idx < 0) {
+         previousSecondsByPath = Map.of();
+         table.setInput(List.of());
+         return;
+      }
+
+      final var report = reports.get(idx);
+      final var previous = HaxeBuildTimingsHistory.INSTANCE.getPrevious(project, report);
+      final var previousSeconds = new HashMap<String, Double>();
+      if (previous != null) {
+         for (final var entry : previous.entries()) {
+            previousSeconds.merge(entry.path() + "|" + entry.info(), entry.seconds(), Double::sum);
+         }
+      }
+      previousSecondsByPath = previousSeconds;
+      table.setInput(report.entries());
+   }
+
+   @Override
+   public void setFocus() {
+      table.getControl().setFocus();
+   }
+}
@@ -6,25 +6,44 @@
  */
 package org.haxe4e.builder;
 
-import static net.sf.jstuff.core.validation.NullAnalysisHelper.asNonNull;
-
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.mutable.MutableBoolean;
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IncrementalProjectBuilder;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
 import org.eclipse.jdt.annotation.Nullable;
-import org.haxe4e.Constants;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.model.HaxeSDK;
+import org.haxe4e.model.buildsystem.BuildFile;
+import org.haxe4e.model.buildsystem.HaxeBuildFile;
 import org.haxe4e.model.buildsystem.LixVirtualBuildFile;
-import org.haxe4e.navigation.HaxeDependenciesUpdater;
 import org.haxe4e.prefs.HaxeProjectPreference;
+import org.haxe4e.prefs.HaxeProjectPreference.AutoBuildMode;
 
 /**
  * @author Sebastian Thomschke
@@ -33,18 +52,220 @@ public final class HaxeBuilder extends IncrementalProjectBuilder {
 
    public static final class Context {
       public final IProject project;
+
+      /**
+       * optional name of the build file/compilation unit being built, e.g. when building multiple build files concurrently
+       */
+      public final @Nullable String label;
       public final IProgressMonitor monitor;
       public final CompletionStage<@Nullable Void> onTerminated;
 
+      /**
+       * completed when termination of the build was requested via {@link #cancel()}
+       */
+      final CompletableFuture<@Nullable Void> onCancelRequested = new CompletableFuture<>();
+
       public Context(final IProject project, final IProgressMonitor monitor, final CompletionStage<@Nullable Void> onTerminated) {
+         this(project, null, monitor, onTerminated);
+      }
+
+      public Context(final IProject project, final @Nullable String label, final IProgressMonitor monitor,
+            final CompletionStage<@Nullable Void> onTerminated) {
          this.project = project;
+         this.label = label;
          this.monitor = monitor;
          this.onTerminated = onTerminated;
       }
+
+      /**
+       * Requests termination of the build. The compiler process is killed immediately.
+       */
+      public void cancel() {
+         monitor.setCanceled(true);
+         onCancelRequested.complete(null);
+      }
+   }
+
+   /**
+    * A single compiler invocation, i.e. a build file or one of its <code>--next</code> compilation units.
+    *
+    * @param label name of the unit shown in the console, null when building only the project's default build file
+    * @param args the compiler arguments, excluding arguments that only affect how the compiler is executed, e.g.
+    *           <code>--connect</code>
+    */
+   record CompilationUnit(BuildFile buildFile, @Nullable String label, List<String> args) {
+
+      /**
+       * @return the key under which the build state of this unit is tracked
+       */
+      String getKey() {
+         final var label = this.label;
+         return label == null ? buildFile.getProjectRelativePath() : label;
+      }
+
+      /**
+       * @return the key under which the problem markers of this unit are tracked, shared by full builds and type checks of the unit
+       */
+      String getProblemsKey() {
+         final var key = getKey();
+         return key.endsWith(TYPE_CHECK_LABEL_SUFFIX) ? key.substring(0, key.length() - TYPE_CHECK_LABEL_SUFFIX.length()) : key;
+      }
+   }
+
+   /**
+    * State of a single build of a project.
+    */
+   private static final class BuildRun {
+      final IProject project;
+      final HaxeSDK haxeSDK;
+      final @Nullable HaxeCompilationServer server;
+      final IProgressMonitor monitor;
+      final boolean showConsole;
+      final boolean skipUpToDate;
+      final boolean collectTimings;
+
+      /**
+       * build files of which at least one compilation unit was compiled generating output
+       */
+      private final Map<IFile, BuildFile> compiledBuildFiles = new LinkedHashMap<>();
+
+      BuildRun(final IProject project, final HaxeSDK haxeSDK, final @Nullable HaxeCompilationServer server, final IProgressMonitor monitor,
+            final boolean showConsole, final boolean skipUpToDate, final boolean collectTimings) {
+         this.project = project;
+         this.haxeSDK = haxeSDK;
+         this.server = server;
+         this.monitor = monitor;
+         this.showConsole = showConsole;
+         this.skipUpToDate = skipUpToDate;
+         this.collectTimings = collectTimings;
+      }
+
+      /**
+       * @return the exit code of the compiler, <code>0</code> if the build was skipped because it is up-to-date, or <code>-1</code> if
+       *         the build was aborted
+       */
+      int build(final CompilationUnit unit) throws CoreException {
+         final var buildCache = HaxeBuildCache.INSTANCE;
+         final var fingerprint = buildCache.computeFingerprint(haxeSDK, unit, monitor);
+         if (skipUpToDate && fingerprint != null && buildCache.isUpToDate(unit, fingerprint))
+            return 0;
+
+         final var exitCode = compile(unit);
+         if (exitCode == 0 && fingerprint != null) {
+            buildCache.markSuccessful(unit, fingerprint);
+         } else {
+            buildCache.invalidate(project, unit.getKey());
+         }
+         return exitCode;
+      }
+
+      /**
+       * Builds the given compilation units concurrently on a bounded worker pool. Each compilation unit is reported in its own console.
+       */
+      void buildInParallel(final List<CompilationUnit> units, final int maxWorkers) throws CoreException {
+         final var executor = Executors.newFixedThreadPool(Math.min(maxWorkers, Math.max(1, units.size())));
+         try {
+            final var results = new ArrayList<Future<Integer>>(units.size());
+            for (final var unit : units) {
+               results.add(executor.submit(() -> monitor.isCanceled() ? -1 : build(unit)));
+            }
+
+            for (final var result : results) {
+               try {
+                  result.get();
+               } catch (final ExecutionException ex) {
+                  if (ex.getCause() instanceof final CoreException cex)
+                     throw cex;
+                  throw new CoreException(Haxe4EPlugin.status().createError(ex.getCause(), "Failed to run Haxe Builder."));
+               }
+            }
+         } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CoreException(Haxe4EPlugin.status().createError(ex, "Aborted."));
+         } finally {
+            executor.shutdownNow();
+         }
+      }
+
+      /**
+       * Refreshes the outputs of all build files compiled during this run. Must be called from the thread holding the build's
+       * scheduling rule.
+       */
+      void refreshOutputs() {
+         final List<BuildFile> buildFiles;
+         synchronized (compiledBuildFiles) {
+            buildFiles = new ArrayList<>(compiledBuildFiles.values());
+         }
+         for (final var buildFile : buildFiles) {
+            HaxeBuildOutputs.refresh(buildFile, monitor);
+         }
+      }
+
+      /**
+       * Runs the Haxe compiler, using the compilation server if available. Falls back to a cold build if the compilation server
+       * stopped responding.
+       *
+       * @return the exit code of the compiler or <code>-1</code> if the build was aborted
+       */
+      private int compile(final CompilationUnit unit) throws CoreException {
+         final var args = new ArrayList<Object>(unit.args());
+         final var timings = collectTimings ? new HaxeCompilerTimes.Parser() : null;
+         if (timings != null) {
+            args.addAll(List.of("--times", "-D", "macro-times"));
+         }
+         final var diagnostics = new HaxeCompilerDiagnostics.Parser();
+         final Consumer<String> outputListener = timings == null ? diagnostics : diagnostics.andThen(timings);
+
+         var exitCode = -1;
+         final var server = this.server;
+         if (server != null) {
+            exitCode = HaxeBuilderConsole.runWithConsole(project, unit.label(), //
+               haxeSDK.getCompilerProcessBuilder(false) //
+                  .withArgs("--connect", server.getConnectAddress()) //
+                  .withArgs(args.toArray()), //
+               monitor, showConsole, outputListener);
+
+            // if the build failed because the server died in the meantime, fall back to a cold build
+            if (exitCode != 0 && !monitor.isCanceled() && !server.isHealthy()) {
+               Haxe4EPlugin.log().warn("Haxe compilation server of project [{0}] is not responding. Falling back to cold build.", //
+                  project.getName());
+               server.stop();
+               exitCode = -1;
+            }
+         }
+
+         if (exitCode == -1 && !monitor.isCanceled()) {
+            exitCode = HaxeBuilderConsole.runWithConsole(project, unit.label(), //
+               haxeSDK.getCompilerProcessBuilder(false).withArgs(args.toArray()), //
+               monitor, showConsole, outputListener);
+         }
+
+         if (!monitor.isCanceled()) {
+            if (exitCode != -1 && !unit.args().contains("--no-output")) {
+               synchronized (compiledBuildFiles) {
+                  compiledBuildFiles.putIfAbsent(unit.buildFile().location, unit.buildFile());
+               }
+            }
+            HaxeProblemMarkers.update(project, unit.getProblemsKey(), diagnostics.getDiagnostics(), monitor);
+            if (timings != null) {
+               HaxeBuildTimingsHistory.INSTANCE.add(project, unit.getKey(), timings);
+            }
+         }
+         return exitCode;
+      }
    }
 
    public static final String ID = "org.haxe4e.builder";
 
+   private static final String TYPE_CHECK_LABEL_SUFFIX = " (type check)";
+
+   /**
+    * Serializes builds of the same project without locking any resources of the project, so edits, dependency updates and builds of
+    * other projects are not blocked by a running build. A scheduling rule cannot be used for this, as the rule of a workspace build
+    * must be contained in the workspace root rule.
+    */
+   private static final Map<IProject, ReentrantLock> BUILD_LOCKS = new WeakHashMap<>();
+
    @Override
    protected IProject @Nullable [] build(final int kind, final @Nullable Map<String, String> args, final @Nullable IProgressMonitor monitor)
          throws CoreException {
@@ -52,6 +273,8 @@ public Context(final IProject project, final IProgressMonitor monitor, final Com
       final var prefs = HaxeProjectPreference.get(project);
 
       final boolean needsBuild;
+      @Nullable Set<IPath> changes = null; // null = unknown
+
       switch (kind) {
          case INCREMENTAL_BUILD:
          case AUTO_BUILD:
@@ -64,64 +287,45 @@ public Context(final IProject project, final IProgressMonitor monitor, final Com
             if (delta == null) {
                needsBuild = true;
             } else if (delta.getAffectedChildren().length == 0) {
-               needsBuild = false;
+               // changes in provider projects cannot be attributed to compilation units, thus changes = null
+               needsBuild = hasRelevantProviderChanges(project);
             } else {
-               final var hasRelevantFileChange = new MutableBoolean(false);
+               final var relevantChanges = new LinkedHashSet<IPath>();
+               final var relevanceIndex = HaxeBuildRelevanceIndex.get(project, prefs);
                delta.accept(subDelta -> {
-                  if (hasRelevantFileChange.isTrue())
-                     return false; // no further scanning necessary
-
-                  if ((subDelta.getFlags() & IResourceDelta.CONTENT) == 0)
-                     return true; // ignore no content change happened
+                  final var resource = subDelta.getResource();
+                  final var path = resource.getProjectRelativePath();
+                  switch (resource.getType()) {
+                     case IResource.PROJECT:
+                        return true;
+                     case IResource.FOLDER:
+                        return relevanceIndex.isRelevantFolder(path); // skip scanning of irrelevant folders, e.g. build output
+                     default:
+                        break;
+                  }
 
                   switch (subDelta.getKind()) {
                      case IResourceDelta.ADDED:
-                     case IResourceDelta.CHANGED:
-                     case IResourceDelta.MOVED_FROM:
-                     case IResourceDelta.MOVED_TO:
                      case IResourceDelta.REMOVED:
                         break;
+                     case IResourceDelta.CHANGED:
+                        if ((subDelta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) == 0)
+                           return true; // ignore no content change happened
+                        break;
                      default:
                         return true; // ignore other delta types
                   }
 
-                  final var resource = subDelta.getResource();
-                  switch (asNonNull(resource.getProjectRelativePath().segment(0))) {
-                     case HaxeDependenciesUpdater.STDLIB_MAGIC_FOLDER_NAME:
-                        // don't auto build if changes in stdlib occur
-                     case HaxeDependenciesUpdater.DEPS_MAGIC_FOLDER_NAME:
-                        // don't auto build if changes in other projects occur, this could result in endless circular builds
-                     case ".github":
-                     case "hxformat.json":
-                     case "bin":
-                     case "build":
-                     case "dump":
-                     case "output":
-                     case "target":
-                        return true; // ignore build artifacts
-                     default:
-                        break;
-                  }
-
-                  if (resource.getType() == IResource.FOLDER)
-                     return true;
-
-                  final var resourceExt = resource.getFileExtension();
-                  switch (resourceExt == null ? "" : resourceExt) {
-                     case Constants.HAXE_FILE_EXTENSION:
-                     case "json":
-                     case "xml":
-                        hasRelevantFileChange.setTrue();
-                        return false; // no further scanning necessary
-                  }
-                  if (prefs.getBuildSystem().getBuildFileExtension().equals(resourceExt)) {
-                     hasRelevantFileChange.setTrue();
-                     return false; // no further scanning necessary
+                  if (relevanceIndex.isRelevantFile(path, resource.getFileExtension())) {
+                     relevantChanges.add(path);
                   }
-
                   return true;
                });
-               needsBuild = hasRelevantFileChange.isTrue();
+               changes = relevantChanges;
+               needsBuild = !relevantChanges.isEmpty() || hasRelevantProviderChanges(project);
+               if (needsBuild && relevantChanges.isEmpty()) {
+                  changes = null; // changes in provider projects cannot be attributed to compilation units
+               }
             }
             break;
          case CLEAN_BUILD:
@@ -133,13 +337,93 @@ public Context(final IProject project, final IProgressMonitor monitor, final Com
       }
 
       if (needsBuild) {
-         buildProject(kind, project, prefs, monitor == null ? new NullProgressMonitor() : monitor);
+         if (kind == AUTO_BUILD) {
+            // coalesce auto-builds triggered in quick succession and preempt outdated builds
+            HaxeAutoBuildScheduler.INSTANCE.schedule(project, changes);
+         } else {
+            buildProject(kind, project, prefs, changes, monitor == null ? new NullProgressMonitor() : monitor);
+         }
       }
-      return null;
+      // request deltas of the projects providing haxelibs to this project
+      return HaxeProjectGraph.INSTANCE.getProviders(project).toArray(IProject[]::new);
    }
 
-   private void buildProject(final int kind, final IProject project, final HaxeProjectPreference prefs, final IProgressMonitor monitor)
-         throws CoreException {
+   /**
+    * @return true if files in the class path of haxelibs provided by other workspace projects changed since the last build
+    */
+   private boolean hasRelevantProviderChanges(final IProject project) throws CoreException {
+      for (final var provider : HaxeProjectGraph.INSTANCE.getProviders(project)) {
+         final var providerDelta = getDelta(provider);
+         final var providerLoc = provider.getLocation();
+         if (providerDelta == null || providerLoc == null) {
+            continue;
+         }
+
+         final var libClassPaths = HaxeProjectGraph.INSTANCE.getLibraryClassPaths(project, provider);
+         final var hasRelevantChange = new MutableBoolean(false);
+         providerDelta.accept(subDelta -> {
+            if (hasRelevantChange.isTrue())
+               return false; // no further scanning necessary
+
+            final var resource = subDelta.getResource();
+            if (resource.isLinked() || resource.isVirtual())
+               return false; // ignore linked haxelibs/stdlib of the provider project
+
+            final var resourceLoc = resource.getLocation();
+            if (resourceLoc == null)
+               return false;
+            final var resourcePath = resourceLoc.toFile().toPath();
+
+            if (resource.getType() != IResource.FILE)
+               return libClassPaths.stream().anyMatch(cp -> cp.startsWith(resourcePath) || resourcePath.startsWith(cp));
+
+            if (subDelta.getKind() == IResourceDelta.CHANGED
+                  && (subDelta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) == 0)
+               return false; // ignore no content change happened
+
+            if (libClassPaths.stream().anyMatch(resourcePath::startsWith)) {
+               hasRelevantChange.setTrue();
+            }
+            return false;
+         });
+         if (hasRelevantChange.isTrue())
+            return true;
+      }
+      return false;
+   }
+
+   /**
+    * Performs the actual build of the given project. Waits for a running build of the same project to finish.
+    *
+    * @param changes project relative paths of the changed resources that triggered the build or null if unknown. If specified, only
+    *           the compilation units affected by the changes are built.
+    */
+   static void buildProject(final int kind, final IProject project, final HaxeProjectPreference prefs,
+         final @Nullable Collection<IPath> changes, final IProgressMonitor monitor) throws CoreException {
+      final ReentrantLock lock;
+      synchronized (BUILD_LOCKS) {
+         lock = BUILD_LOCKS.computeIfAbsent(project, p -> new ReentrantLock());
+      }
+      try {
+         // polling, so a build waiting for a running build of the same project can be canceled
+         while (!lock.tryLock(100, TimeUnit.MILLISECONDS)) {
+            if (monitor.isCanceled())
+               return;
+         }
+      } catch (final InterruptedException ex) {
+         Thread.currentThread().interrupt();
+         return;
+      }
+
+      try {
+         buildProjectLocked(kind, project, prefs, changes, monitor);
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   private static void buildProjectLocked(final int kind, final IProject project, final HaxeProjectPreference prefs,
+         final @Nullable Collection<IPath> changes, final IProgressMonitor monitor) throws CoreException {
       final var haxeSDK = prefs.getEffectiveHaxeSDK();
       if (haxeSDK == null)
          return;
@@ -148,15 +432,161 @@ private void buildProject(final int kind, final IProject project, final HaxeProj
       if (buildFile == null || buildFile instanceof LixVirtualBuildFile)
          return;
 
-      final var buildFileProjectRelativePath = buildFile.location.getProjectRelativePath();
+      final @Nullable HaxeCompilationServer server;
+      if (prefs.isUseCompilationServer()) {
+         server = HaxeCompilationServer.acquire(haxeSDK, project);
+      } else {
+         server = null;
+         HaxeCompilationServer.stopBuildServers(project);
+      }
+
+      if (kind == CLEAN_BUILD) {
+         HaxeBuildCache.INSTANCE.invalidate(project);
+         HaxeProblemMarkers.clear(project);
+      }
+
+      final var run = new BuildRun(project, haxeSDK, server, monitor, //
+         kind == CLEAN_BUILD, // showConsole
+         kind == AUTO_BUILD || kind == INCREMENTAL_BUILD, // skipUpToDate
+         prefs.isCollectBuildTimings() //
+      );
 
-      HaxeBuilderConsole.runWithConsole(project, //
-         haxeSDK.getCompilerProcessBuilder(false).withArg(buildFileProjectRelativePath.toOSString()), //
-         monitor, kind == IncrementalProjectBuilder.CLEAN_BUILD);
+      // artifacts are only built on explicit builds if the type-check-only auto-build mode is active
+      final var typeCheckOnly = kind == AUTO_BUILD && prefs.getAutoBuildMode() == AutoBuildMode.TYPE_CHECK;
+
+      if (prefs.isParallelBuild()) {
+         final var buildFiles = new LinkedHashMap<IFile, BuildFile>();
+         buildFiles.put(buildFile.location, buildFile);
+         prefs.getAdditionalBuildFiles().forEach(f -> buildFiles.putIfAbsent(f.location, f));
+         var units = getCompilationUnits(buildFiles.values());
+         if (changes != null && !changes.isEmpty()) {
+            units = new HaxeAffectedBuildFiles(project, haxeSDK, changes, monitor).filter(units);
+         }
+         if (typeCheckOnly) {
+            units = units.stream().map(HaxeBuilder::toTypeCheckUnit).toList();
+         }
+         run.buildInParallel(units, prefs.getParallelBuildMaxWorkers());
+      } else if (typeCheckOnly && buildFile instanceof HaxeBuildFile) {
+         for (final var unit : getCompilationUnits(List.of(buildFile))) {
+            if (monitor.isCanceled()) {
+               break;
+            }
+            run.build(toTypeCheckUnit(unit));
+         }
+      } else {
+         run.build(new CompilationUnit(buildFile, null, List.of(buildFile.location.getProjectRelativePath().toOSString())));
+      }
+
+      run.refreshOutputs();
+   }
+
+   /**
+    * @return true if all files and folders the given build file declares as compiler output exist
+    */
+   private static boolean hasOutputs(final BuildFile buildFile) {
+      final var projectLoc = buildFile.getProject().getLocation();
+      if (projectLoc == null)
+         return false;
+      try {
+         for (final var outputPath : buildFile.getOutputPaths()) {
+            if (!Files.exists(projectLoc.append(outputPath).toFile().toPath()))
+               return false;
+         }
+      } catch (final RuntimeException ex) {
+         Haxe4EPlugin.log().debug(ex);
+         return false;
+      }
+      return true;
+   }
+
+   /**
+    * @return true if the last successful build of the given build file with the given SDK was executed with the current inputs and
+    *         its declared outputs exist, i.e. its output can be reused
+    */
+   public static boolean isUpToDate(final BuildFile buildFile, final HaxeSDK haxeSDK, final IProgressMonitor monitor) {
+      if (!hasOutputs(buildFile))
+         return false; // e.g. deleted by an external clean or never written by the compiler
+
+      final var buildCache = HaxeBuildCache.INSTANCE;
+
+      // built as a whole, e.g. sequential build
+      final var unit = new CompilationUnit(buildFile, null, List.of(buildFile.location.getProjectRelativePath().toOSString()));
+      final var fingerprint = buildCache.computeFingerprint(haxeSDK, unit, monitor);
+      if (fingerprint != null && buildCache.isUpToDate(unit, fingerprint))
+         return true;
+
+      // built per compilation unit, i.e. parallel build
+      final var units = getCompilationUnits(List.of(buildFile));
+      if (units.size() < 2)
+         return false;
+      for (final var u : units) {
+         final var unitFingerprint = buildCache.computeFingerprint(haxeSDK, u, monitor);
+         if (unitFingerprint == null || !buildCache.isUpToDate(u, unitFingerprint))
+            return false;
+      }
+      return true;
+   }
+
+   /**
+    * Splits the given build files into their <code>--next</code> compilation units.
+    */
+   private static List<CompilationUnit> getCompilationUnits(final Collection<BuildFile> buildFiles) {
+      final var units = new ArrayList<CompilationUnit>();
+      for (final var buildFile : buildFiles) {
+         final var buildFilePath = buildFile.location.getProjectRelativePath().toOSString();
+         if (buildFile instanceof final HaxeBuildFile hxmlFile && !(buildFile instanceof LixVirtualBuildFile)) {
+            final var compilationUnits = hxmlFile.getCompilationUnits();
+            if (compilationUnits.size() > 1) {
+               for (int i = 0; i < compilationUnits.size(); i++) {
+                  units.add(new CompilationUnit(buildFile, buildFile.getProjectRelativePath() + " #" + (i + 1), compilationUnits.get(i)));
+               }
+               continue;
+            }
+         }
+         units.add(new CompilationUnit(buildFile, buildFile.getProjectRelativePath(), List.of(buildFilePath)));
+      }
+      return units;
+   }
+
+   /**
+    * @return a compilation unit that only type-checks the code of the given unit or the given unit if the build system is not supported
+    */
+   private static CompilationUnit toTypeCheckUnit(final CompilationUnit unit) {
+      final var buildFile = unit.buildFile();
+      if (!(buildFile instanceof final HaxeBuildFile hxmlFile) || buildFile instanceof LixVirtualBuildFile)
+         return unit;
+
+      var args = unit.args();
+      if (args.size() == 1 && args.get(0).endsWith(".hxml")) {
+         // unit refers to the build file, use its actual arguments instead
+         final var compilationUnits = hxmlFile.getCompilationUnits();
+         if (compilationUnits.size() != 1)
+            return unit;
+         args = compilationUnits.get(0);
+      }
+      return new CompilationUnit(buildFile, unit.getKey() + TYPE_CHECK_LABEL_SUFFIX, HaxeBuildFile.toTypeCheckArgs(args));
+   }
+
+   /**
+    * @return the scheduling rule required to build the given project, i.e. the rules required to refresh the outputs of the configured
+    *         build files. Concurrent builds of the same project are serialized by {@link #buildProject}.
+    */
+   static @Nullable ISchedulingRule getBuildRule(final HaxeProjectPreference prefs) {
+      @Nullable ISchedulingRule rule = null;
+      final var buildFile = prefs.getBuildFile();
+      if (buildFile != null) {
+         rule = MultiRule.combine(rule, HaxeBuildOutputs.getRefreshRule(buildFile));
+         if (prefs.isParallelBuild()) {
+            for (final var additionalBuildFile : prefs.getAdditionalBuildFiles()) {
+               rule = MultiRule.combine(rule, HaxeBuildOutputs.getRefreshRule(additionalBuildFile));
+            }
+         }
+      }
+      return rule;
    }
 
    @Override
    public @Nullable ISchedulingRule getRule(final int kind, final Map<String, String> args) {
-      return getProject();
+      return getBuildRule(HaxeProjectPreference.get(getProject()));
    }
 }
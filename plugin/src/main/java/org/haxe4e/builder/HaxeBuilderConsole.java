@@ -8,13 +8,19 @@
 
 import static net.sf.jstuff.core.validation.NullAnalysisHelper.asNonNull;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.eclipse.core.resources.IProject;
@@ -31,7 +37,6 @@
 import de.sebthom.eclipse.commons.ui.Consoles;
 import de.sebthom.eclipse.commons.ui.UI;
 import net.sf.jstuff.core.Strings;
-import net.sf.jstuff.core.concurrent.Threads;
 import net.sf.jstuff.core.io.Processes;
 
 /**
@@ -55,6 +60,21 @@ public void openConsole() {
     */
    public static final String CONSOLE_TYPE = HaxeBuilderConsole.class.getName();
 
+   private static final int CANCEL_CHECK_INTERVAL_MS = 100;
+   private static final int KILL_TIMEOUT_MS = 2_000;
+
+   /**
+    * max time to wait for the remaining output after the process exited, e.g. a program started via <code>--cmd</code> in the
+    * background may keep the pipes open
+    */
+   private static final int OUTPUT_DRAIN_TIMEOUT_MS = 5_000;
+
+   /**
+    * max number of characters kept in the console, when exceeded the console is trimmed to the low water mark
+    */
+   private static final int CONSOLE_HIGH_WATER_MARK = 1_000_000;
+   private static final int CONSOLE_LOW_WATER_MARK = 800_000;
+
    public static HaxeBuilderConsole openConsole(final HaxeBuilder.Context buildContext) {
       return openConsole(buildContext, true);
    }
@@ -62,6 +82,7 @@ public static HaxeBuilderConsole openConsole(final HaxeBuilder.Context buildCont
    public static HaxeBuilderConsole openConsole(final HaxeBuilder.Context buildContext, final boolean showConsole) {
       Consoles.closeConsoles(c -> CONSOLE_TYPE.equals(c.getType()) //
             && ((HaxeBuilderConsole) c).buildContext.project.equals(buildContext.project) //
+            && Objects.equals(((HaxeBuilderConsole) c).buildContext.label, buildContext.label) //
             && ((HaxeBuilderConsole) c).buildContext.onTerminated.toCompletableFuture().isDone());
 
       final var console = new HaxeBuilderConsole(buildContext);
@@ -71,18 +92,121 @@ public static HaxeBuilderConsole openConsole(final HaxeBuilder.Context buildCont
       return console;
    }
 
-   public static void runWithConsole(final IProject project, final Processes.Builder processBuilder, final IProgressMonitor monitor)
+   /**
+    * Waits for the given process to exit. If the build is canceled meanwhile, the process tree is killed.
+    * <p>
+    * Completion is signaled by the process' exit future and cancellation requests issued via {@link Context#cancel()} are handled
+    * immediately. Cancellation of the progress monitor by other means (e.g. the Progress view) is detected within
+    * {@link #CANCEL_CHECK_INTERVAL_MS}.
+    *
+    * @return the exit code of the process or <code>-1</code> if the process was aborted
+    */
+   /**
+    * Waits until the given output reader reached the end of the stream, the build was canceled or
+    * {@link #OUTPUT_DRAIN_TIMEOUT_MS} elapsed.
+    */
+   private static void awaitOutput(final Thread outputReader, final IProgressMonitor monitor) throws InterruptedException {
+      final var deadline = System.currentTimeMillis() + OUTPUT_DRAIN_TIMEOUT_MS;
+      while (outputReader.isAlive() && !monitor.isCanceled() && System.currentTimeMillis() < deadline) {
+         outputReader.join(CANCEL_CHECK_INTERVAL_MS);
+      }
+   }
+
+   private static int awaitExit(final Process process, final Context buildContext) throws InterruptedException {
+      final var onExitOrCancel = CompletableFuture.anyOf(process.onExit(), buildContext.onCancelRequested);
+      while (true) {
+         if (buildContext.monitor.isCanceled()) {
+            killProcessTree(process);
+            return -1;
+         }
+         try {
+            onExitOrCancel.get(CANCEL_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            if (!process.isAlive() && !buildContext.monitor.isCanceled())
+               return process.exitValue();
+         } catch (final TimeoutException ex) {
+            // check monitor again
+         } catch (final ExecutionException ex) {
+            Haxe4EPlugin.log().debug(ex);
+         }
+      }
+   }
+
+   /**
+    * Terminates the given process and all its descendants, forcibly if they do not exit within {@link #KILL_TIMEOUT_MS}.
+    */
+   private static void killProcessTree(final Process process) throws InterruptedException {
+      // collect descendants before terminating the process since they get re-parented once it exited
+      final var processes = new ArrayList<ProcessHandle>();
+      process.descendants().forEach(processes::add);
+      processes.add(process.toHandle());
+
+      processes.forEach(ProcessHandle::destroy);
+      try {
+         CompletableFuture.allOf(processes.stream().map(ProcessHandle::onExit).toArray(CompletableFuture[]::new)) //
+            .get(KILL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      } catch (final TimeoutException | ExecutionException ex) {
+         processes.stream().filter(ProcessHandle::isAlive).forEach(ProcessHandle::destroyForcibly);
+      }
+   }
+
+   /**
+    * @return the exit code of the process or <code>-1</code> if the process was aborted
+    */
+   public static int runWithConsole(final IProject project, final Processes.Builder processBuilder, final IProgressMonitor monitor)
          throws CoreException {
-      runWithConsole(project, processBuilder, monitor, true);
+      return runWithConsole(project, processBuilder, monitor, true);
    }
 
-   public static void runWithConsole(final IProject project, final Processes.Builder processBuilder, final IProgressMonitor monitor,
+   /**
+    * @return the exit code of the process or <code>-1</code> if the process was aborted
+    */
+   public static int runWithConsole(final IProject project, final Processes.Builder processBuilder, final IProgressMonitor monitor,
          final boolean showConsole) throws CoreException {
+      return runWithConsole(project, null, processBuilder, monitor, showConsole);
+   }
 
-      monitor.setTaskName("Building project '" + project.getName() + "'");
+   /**
+    * @return a started daemon thread passing each line read from the given reader to the given consumer until the end of the stream
+    */
+   private static Thread startOutputReader(final BufferedReader reader, final Consumer<String> onLine, final String name) {
+      final var thread = new Thread(() -> {
+         try (reader) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+               onLine.accept(line);
+            }
+         } catch (final IOException ex) {
+            Haxe4EPlugin.log().debug(ex); // e.g. stream closed because the process was killed
+         }
+      }, "Haxe Builder Output " + name);
+      thread.setDaemon(true);
+      thread.start();
+      return thread;
+   }
+
+   /**
+    * @param label optional name of the build file/compilation unit being built, shown in the console
+    * @return the exit code of the process or <code>-1</code> if the process was aborted
+    */
+   public static int runWithConsole(final IProject project, final @Nullable String label, final Processes.Builder processBuilder,
+         final IProgressMonitor monitor, final boolean showConsole) throws CoreException {
+      return runWithConsole(project, label, processBuilder, monitor, showConsole, null);
+   }
+
+   /**
+    * @param label optional name of the build file/compilation unit being built, shown in the console
+    * @param outputListener optional listener that receives every stdout/stderr line of the process
+    * @return the exit code of the process or <code>-1</code> if the process was aborted
+    */
+   public static int runWithConsole(final IProject project, final @Nullable String label, final Processes.Builder processBuilder,
+         final IProgressMonitor monitor, final boolean showConsole, final @Nullable Consumer<String> outputListener)
+         throws CoreException {
+
+      final var buildName = label == null ? "'" + project.getName() + "'" : "'" + project.getName() + "' (" + label + ")";
+      monitor.setTaskName("Building project " + buildName);
 
       final var onTerminated = new CompletableFuture<@Nullable Void>();
-      final var console = openConsole(new Context(project, monitor, onTerminated), showConsole);
+      final var console = openConsole(new Context(project, label, monitor, onTerminated), showConsole);
 
       try (var out = console.newMessageStream();
            var err = console.newMessageStream()) {
@@ -95,10 +219,11 @@ public static void runWithConsole(final IProject project, final Processes.Builde
          final var startAt = LocalTime.now();
          final var startAtStr = startAt.truncatedTo(ChronoUnit.SECONDS).format(DateTimeFormatter.ISO_TIME);
 
-         out.println("Building project '" + project.getName() + "'...");
+         out.println("Building project " + buildName + "...");
          out.println();
 
-         final var hasOutput = new AtomicBoolean(false);
+         final var output = new HaxeBuilderConsoleOutput(out, err, getFullLogFile(project, label));
+         console.fullLogFile = output.getFullLogFile();
          final var proc = processBuilder //
             .withWorkingDirectory(asNonNull(project.getLocation()).toFile()) //
             .withEnvironment(env -> {
@@ -106,47 +231,49 @@ public static void runWithConsole(final IProject project, final Processes.Builde
                   env.put("ANSICON", "1");
                }
             }) //
-            .withRedirectOutput(line -> {
-               out.println(line);
-               hasOutput.set(true);
-            }) //
-            .withRedirectError(line -> {
-               err.println(line);
-               hasOutput.set(true);
-            }) //
             .start();
 
+         // the output is read by own threads, so it can be awaited until the end of the streams before the output is closed
+         final var stdoutReader = startOutputReader(proc.getProcess().inputReader(), line -> {
+            output.out(line);
+            if (outputListener != null) {
+               outputListener.accept(line);
+            }
+         }, buildName + " stdout");
+         final var stderrReader = startOutputReader(proc.getProcess().errorReader(), line -> {
+            output.err(line);
+            if (outputListener != null) {
+               outputListener.accept(line);
+            }
+         }, buildName + " stderr");
+
          final var exe = proc.getProcess().info().command().orElse("<unknown>");
 
          console.setTitle("<running> " + exe + " (" + startAtStr + ")");
 
-         while (proc.isAlive()) {
-            /*
-             * kill process if job was aborted by user
-             */
-            if (monitor.isCanceled()) {
-               proc.terminate() //
-                  .waitForExit(2, TimeUnit.SECONDS) //
-                  .kill();
-               proc.getProcess().descendants().forEach(ProcessHandle::destroy);
-               Threads.sleep(1000);
-               proc.getProcess().descendants().forEach(ProcessHandle::destroyForcibly);
-               err.println("Aborted on user request.");
-               break;
-            }
-            Threads.sleep(500);
+         final int exitCode;
+         try {
+            exitCode = awaitExit(proc.getProcess(), console.buildContext);
+            // the process may exit before all of its output was read, e.g. the --times table printed last
+            awaitOutput(stdoutReader, monitor);
+            awaitOutput(stderrReader, monitor);
+         } finally {
+            output.close();
+         }
+         if (exitCode == -1) {
+            err.println("Aborted on user request.");
          }
 
          final var endAt = LocalTime.now();
          final var endAtStr = endAt.truncatedTo(ChronoUnit.SECONDS).format(DateTimeFormatter.ISO_TIME);
          console.setTitle("<terminated> " + exe + " (" + startAtStr + " - " + endAtStr + ") [" + proc.getProcess().pid() + "]");
          if (monitor.isCanceled())
-            return;
+            return -1;
 
-         if (hasOutput.get()) {
+         if (output.hasOutput()) {
             out.println();
          }
-         if (proc.exitStatus() == 0) {
+         if (exitCode == 0) {
             out.write("Build successful in ");
          } else {
             out.write("Build");
@@ -155,15 +282,17 @@ public static void runWithConsole(final IProject project, final Processes.Builde
             out.write("in ");
          }
 
-         var elapsed = ChronoUnit.MILLIS.between(startAt, endAt);
+         final var elapsed = ChronoUnit.MILLIS.between(startAt, endAt);
          if (elapsed < 1_000) { // prevent 'Build successful in 0 seconds'
-            elapsed = 1_000;
+            out.write(elapsed + " ms");
+         } else {
+            out.write(DurationFormatUtils.formatDurationWords(elapsed, true, true));
          }
-         out.write(DurationFormatUtils.formatDurationWords(elapsed, true, true));
-         if (proc.exitStatus() != 0) {
-            out.write(" (exit code: " + proc.exitStatus() + ")");
+         if (exitCode != 0) {
+            out.write(" (exit code: " + exitCode + ")");
          }
          out.println();
+         return exitCode;
 
       } catch (final IOException ex) {
          throw new CoreException(Haxe4EPlugin.status().createError(ex, "Failed to run Haxe Builder."));
@@ -175,19 +304,36 @@ public static void runWithConsole(final IProject project, final Processes.Builde
       }
    }
 
+   /**
+    * @return location of the gzip compressed file containing the complete output of the last build of the given project/label
+    */
+   private static Path getFullLogFile(final IProject project, final @Nullable String label) {
+      final var fileName = label == null ? project.getName() : project.getName() + "_" + label.replaceAll("[^\\w.-]", "_");
+      return Haxe4EPlugin.get().getStateLocation().toFile().toPath().resolve("build-logs").resolve(fileName + ".log.gz");
+   }
+
    public final HaxeBuilder.Context buildContext;
 
+   /**
+    * the gzip compressed file containing the complete, untruncated build output
+    */
+   volatile @Nullable Path fullLogFile;
+
    private HaxeBuilderConsole(final HaxeBuilder.Context buildContext) {
       super("Haxe Builder", CONSOLE_TYPE, null, true);
       this.buildContext = buildContext;
+      // only keep the tail of huge build outputs in the console, the full output is available via the full log file
+      setWaterMarks(CONSOLE_LOW_WATER_MARK, CONSOLE_HIGH_WATER_MARK);
    }
 
    public void setTitle(final String title) {
+      final var label = buildContext.label;
+      final var prefix = label == null ? "Haxe Builder" : "Haxe Builder [" + label + "]";
       UI.run(() -> {
          if (Strings.isEmpty(title)) {
-            setName("Haxe Builder");
+            setName(prefix);
          } else {
-            setName("Haxe Builder: " + title);
+            setName(prefix + ": " + title);
          }
       });
    }
@@ -8,21 +8,33 @@
 
 import static net.sf.jstuff.core.validation.NullAnalysisHelper.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+
+import org.eclipse.core.filesystem.EFS;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.Separator;
+import org.eclipse.ui.PartInitException;
 import org.eclipse.ui.console.IConsole;
 import org.eclipse.ui.console.IConsoleConstants;
 import org.eclipse.ui.console.IConsolePageParticipant;
+import org.eclipse.ui.ide.IDE;
 import org.eclipse.ui.part.IPageBookViewPage;
 import org.haxe4e.Constants;
 import org.haxe4e.Haxe4EPlugin;
 
+import de.sebthom.eclipse.commons.ui.Dialogs;
+
 /**
  * @author Sebastian Thomschke
  */
 public final class HaxeBuilderConsoleActions implements IConsolePageParticipant {
 
+   private Action openFullLog = lateNonNull();
    private Action terminate = lateNonNull();
 
    @Override
@@ -42,25 +54,56 @@ public void dispose() {
       return null;
    }
 
+   /**
+    * Decompresses the given gzip compressed build log and opens it in an editor.
+    */
+   private void openFullLog(final IPageBookViewPage page, final Path fullLogFile) {
+      final var fileName = asNonNull(fullLogFile.getFileName()).toString();
+      final var logFile = fullLogFile.resolveSibling(fileName.endsWith(".gz") ? fileName.substring(0, fileName.length() - 3) : fileName
+            + ".txt");
+      try (var in = new GZIPInputStream(Files.newInputStream(fullLogFile))) {
+         Files.copy(in, logFile, StandardCopyOption.REPLACE_EXISTING);
+         IDE.openEditorOnFileStore(page.getSite().getPage(), EFS.getLocalFileSystem().getStore(logFile.toUri()));
+      } catch (final IOException | PartInitException ex) {
+         Dialogs.showStatus("Cannot open build log", Haxe4EPlugin.status().createError(ex, "Cannot open build log " + logFile), true);
+      }
+   }
+
    @Override
    public void init(final IPageBookViewPage page, final IConsole console) {
       final var builderConsole = (HaxeBuilderConsole) console;
 
-      builderConsole.buildContext.onTerminated.thenRun(() -> terminate.setEnabled(false));
+      builderConsole.buildContext.onTerminated.thenRun(() -> {
+         terminate.setEnabled(false);
+         openFullLog.setEnabled(builderConsole.fullLogFile != null);
+      });
 
       terminate = new Action("Terminate") {
          @Override
          public void run() {
-            builderConsole.buildContext.monitor.setCanceled(true);
+            builderConsole.buildContext.cancel();
             terminate.setEnabled(false);
          }
       };
       terminate.setImageDescriptor(Haxe4EPlugin.get().getSharedImageDescriptor(Constants.IMAGE_TERMINATE_BUTTON));
       terminate.setDisabledImageDescriptor(Haxe4EPlugin.get().getSharedImageDescriptor(Constants.IMAGE_TERMINATE_BUTTON_DISABLED));
 
+      openFullLog = new Action("Open Full Build Log") {
+         @Override
+         public void run() {
+            final var fullLogFile = builderConsole.fullLogFile;
+            if (fullLogFile != null) {
+               openFullLog(page, fullLogFile);
+            }
+         }
+      };
+      openFullLog.setEnabled(builderConsole.buildContext.onTerminated.toCompletableFuture().isDone()
+            && builderConsole.fullLogFile != null);
+
       final var bars = page.getSite().getActionBars();
       bars.getMenuManager().add(new Separator());
       bars.getMenuManager().add(terminate);
+      bars.getMenuManager().add(openFullLog);
 
       final var toolbarManager = bars.getToolBarManager();
       toolbarManager.appendToGroup(IConsoleConstants.LAUNCH_GROUP, terminate);
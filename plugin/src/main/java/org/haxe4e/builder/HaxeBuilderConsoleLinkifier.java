@@ -6,23 +6,52 @@
  */
 package org.haxe4e.builder;
 
-import org.eclipse.debug.ui.console.FileLink;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.ui.console.IPatternMatchListenerDelegate;
 import org.eclipse.ui.console.PatternMatchEvent;
 import org.eclipse.ui.console.TextConsole;
 import org.haxe4e.Haxe4EPlugin;
-import org.haxe4e.editor.HaxeEditor;
-
-import net.sf.jstuff.core.Strings;
 
 /**
+ * Turns source locations reported by the Haxe compiler, e.g. <code>src/mypackage/Game.hx:123: characters 5-12</code>, into
+ * hyperlinks.
+ * <p>
+ * Locations may be indented and prefixed with a severity or an arrow as printed with <code>-D message.reporting=pretty</code>, e.g.
+ * <code>[ERROR] src/Main.hx:3: characters 5-10</code> or <code> -&gt; src/Main.hx:3: characters 5-10</code>. The hyperlink starts at
+ * the path.
+ * <p>
+ * A linkifier instance is connected to exactly one console, i.e. one build, so resolved file paths are cached for the lifetime of the
+ * instance.
+ *
  * @author Sebastian Thomschke
  */
 public final class HaxeBuilderConsoleLinkifier implements IPatternMatchListenerDelegate {
 
+   /**
+    * must be kept in sync with the regex in plugin.xml, which determines the matched region
+    */
+   private static final Pattern SOURCE_LOCATION = Pattern.compile(
+      "^[ \\t]*(?:\\[[A-Z]+\\][ \\t]*)?(?:->[ \\t]*)?" // indentation and prefixes, e.g. "[ERROR] " or " -> "
+            + "(?<file>\\S.*?\\.hx):(?<line>\\d+):(?: (?:characters? (?<col>\\d+)(?:-(?<endCol>\\d+))?|lines \\d+-\\d+))?");
+
+   private record ResolvedFile(@Nullable IFile file, @Nullable IFileStore fileStore) {
+      static final ResolvedFile UNRESOLVED = new ResolvedFile(null, null);
+   }
+
    private @Nullable HaxeBuilderConsole console;
+   private final Map<String, ResolvedFile> resolvedFiles = new HashMap<>();
 
    @Override
    public void connect(final TextConsole console) {
@@ -32,6 +61,7 @@ public void connect(final TextConsole console) {
    @Override
    public void disconnect() {
       console = null;
+      resolvedFiles.clear();
    }
 
    @Override
@@ -42,17 +72,66 @@ public void matchFound(final PatternMatchEvent event) {
 
       final var offset = event.getOffset();
       final var length = event.getLength();
-      final var doc = console.getDocument();
       try {
-         final var sourceLoc = doc.get(offset, length); // e.g. src/mypackage/Game.hx:123:
-         final var chunks = Strings.split(sourceLoc, ':');
-         final var file = console.buildContext.project.getFile(chunks[0]);
-         if (file.exists()) {
-            final var link = new FileLink(file, HaxeEditor.ID, -1, -1, Integer.parseInt(chunks[1]));
-            console.addHyperlink(link, offset, length - 1);
-         }
-      } catch (final BadLocationException ex) {
+         final var sourceLoc = console.getDocument().get(offset, length); // e.g. [ERROR] src/mypackage/Game.hx:123: characters 5-12
+         final var match = SOURCE_LOCATION.matcher(sourceLoc);
+         if (!match.find())
+            return;
+
+         final var resolved = resolvedFiles.computeIfAbsent(match.group("file"), path -> resolve(console, path));
+         if (resolved == ResolvedFile.UNRESOLVED)
+            return;
+
+         final var col = match.group("col");
+         final var endCol = match.group("endCol");
+         // the compiler reports 1-based columns with an exclusive end
+         final var startColumn = col == null ? -1 : Integer.parseInt(col) - 1;
+         final var endColumn = col == null ? -1 : endCol == null ? startColumn + 1 : Integer.parseInt(endCol) - 1;
+         final var link = new HaxeSourceLink(resolved.file, resolved.fileStore, Integer.parseInt(match.group("line")), startColumn,
+            endColumn);
+         final var fileStart = match.start("file");
+         console.addHyperlink(link, offset + fileStart, (sourceLoc.endsWith(":") ? length - 1 : length) - fileStart);
+      } catch (final BadLocationException | NumberFormatException ex) {
          Haxe4EPlugin.log().debug(ex);
       }
    }
+
+   /**
+    * Resolves the given path reported by the compiler, which is either relative to the project or absolute, e.g. for files of the std
+    * lib or of haxelibs. Workspace files, incl. files in the linked std lib and dependency folders, are preferred over external files.
+    */
+   private ResolvedFile resolve(final HaxeBuilderConsole console, final String path) {
+      final var project = console.buildContext.project;
+      Path ospath;
+      try {
+         ospath = Path.of(path);
+      } catch (final InvalidPathException ex) {
+         return ResolvedFile.UNRESOLVED;
+      }
+
+      if (!ospath.isAbsolute()) {
+         if (!ospath.startsWith("..")) {
+            final var file = project.getFile(path);
+            if (file.exists())
+               return new ResolvedFile(file, null);
+         }
+         final var projectLoc = project.getLocation();
+         if (projectLoc == null)
+            return ResolvedFile.UNRESOLVED;
+         ospath = projectLoc.toFile().toPath().resolve(ospath).normalize();
+      }
+
+      IFile workspaceFile = null;
+      for (final var file : ResourcesPlugin.getWorkspace().getRoot().findFilesForLocationURI(ospath.toUri())) {
+         if (file.exists() && (workspaceFile == null || file.getProject().equals(project))) {
+            workspaceFile = file;
+         }
+      }
+      if (workspaceFile != null)
+         return new ResolvedFile(workspaceFile, null);
+
+      if (Files.isRegularFile(ospath))
+         return new ResolvedFile(null, EFS.getLocalFileSystem().getStore(ospath.toUri()));
+      return ResolvedFile.UNRESOLVED;
+   }
 }
@@ -0,0 +1,172 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.builder;
+
+import static net.sf.jstuff.core.validation.NullAnalysisHelper.asNonNull;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.ui.console.MessageConsoleStream;
+import org.haxe4e.Haxe4EPlugin;
+
+/**
+ * Buffers the output of a compiler process and writes it in batches to the builder console at a capped rate.
+ * <p>
+ * If the compiler produces output faster than it is flushed, the oldest not yet flushed lines are skipped in the console. The complete
+ * output is always written to a gzip compressed log file.
+ *
+ * @author Sebastian Thomschke
+ */
+final class HaxeBuilderConsoleOutput implements AutoCloseable {
+
+   private record Line(boolean isError, String text) {
+   }
+
+   private static final int FLUSH_INTERVAL_MS = 100;
+   private static final int MAX_PENDING_LINES = 5_000;
+
+   private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final var thread = new Thread(runnable, "Haxe Builder Console Flusher");
+      thread.setDaemon(true);
+      return thread;
+   });
+
+   private final MessageConsoleStream out;
+   private final MessageConsoleStream err;
+   private final ArrayDeque<Line> pendingLines = new ArrayDeque<>();
+   private final Object flushLock = new Object();
+   private final ScheduledFuture<?> flushTask;
+   private final Path fullLogFile;
+   private @Nullable Writer fullLog;
+
+   private int skippedLines;
+   private boolean hasOutput;
+
+   HaxeBuilderConsoleOutput(final MessageConsoleStream out, final MessageConsoleStream err, final Path fullLogFile) {
+      this.out = out;
+      this.err = err;
+      this.fullLogFile = fullLogFile;
+      try {
+         Files.createDirectories(asNonNull(fullLogFile.getParent()));
+         fullLog = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(fullLogFile)),
+            StandardCharsets.UTF_8));
+      } catch (final IOException ex) {
+         Haxe4EPlugin.log().error(ex, "Failed to create build log file {0}", fullLogFile);
+      }
+      flushTask = FLUSHER.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+   }
+
+   private synchronized void append(final boolean isError, final String line) {
+      hasOutput = true;
+
+      final var fullLog = this.fullLog;
+      if (fullLog != null) {
+         try {
+            fullLog.write(line);
+            fullLog.write('\n');
+         } catch (final IOException ex) {
+            Haxe4EPlugin.log().error(ex, "Failed to write build log file {0}", fullLogFile);
+            this.fullLog = null;
+         }
+      }
+
+      if (pendingLines.size() >= MAX_PENDING_LINES) {
+         pendingLines.removeFirst();
+         skippedLines++;
+      }
+      pendingLines.add(new Line(isError, line));
+   }
+
+   /**
+    * Flushes pending output and closes the full log file.
+    */
+   @Override
+   public void close() {
+      flushTask.cancel(false);
+      flush();
+      synchronized (this) {
+         final var fullLog = this.fullLog;
+         if (fullLog != null) {
+            try {
+               fullLog.close();
+            } catch (final IOException ex) {
+               Haxe4EPlugin.log().error(ex, "Failed to write build log file {0}", fullLogFile);
+            }
+            this.fullLog = null;
+         }
+      }
+   }
+
+   void err(final String line) {
+      append(true, line);
+   }
+
+   /**
+    * Writes pending lines to the console, combining consecutive lines of the same stream into a single write.
+    */
+   private void flush() {
+      synchronized (flushLock) {
+         final Line[] lines;
+         final int skipped;
+         synchronized (this) {
+            if (pendingLines.isEmpty() && skippedLines == 0)
+               return;
+            lines = pendingLines.toArray(Line[]::new);
+            pendingLines.clear();
+            skipped = skippedLines;
+            skippedLines = 0;
+         }
+
+         try {
+            if (skipped > 0) {
+               err.println("[... " + skipped + " lines skipped, see full build log ...]");
+            }
+
+            final var chunk = new StringBuilder();
+            var chunkIsError = false;
+            for (final var line : lines) {
+               if (line.isError != chunkIsError && chunk.length() > 0) {
+                  (chunkIsError ? err : out).write(chunk.toString());
+                  chunk.setLength(0);
+               }
+               chunkIsError = line.isError;
+               chunk.append(line.text).append(System.lineSeparator());
+            }
+            if (chunk.length() > 0) {
+               (chunkIsError ? err : out).write(chunk.toString());
+            }
+         } catch (final IOException ex) {
+            Haxe4EPlugin.log().debug(ex);
+         }
+      }
+   }
+
+   Path getFullLogFile() {
+      return fullLogFile;
+   }
+
+   synchronized boolean hasOutput() {
+      return hasOutput;
+   }
+
+   void out(final String line) {
+      append(false, line);
+   }
+}
@@ -0,0 +1,264 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.builder;
+
+import static net.sf.jstuff.core.validation.NullAnalysisHelper.asNonNull;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.ui.handlers.HandlerUtil;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.model.HaxeSDK;
+
+import de.sebthom.eclipse.commons.resources.Projects;
+import net.sf.jstuff.core.concurrent.Threads;
+
+/**
+ * Manages long-lived Haxe compilation servers (<code>haxe --wait &lt;port&gt;</code>), one per Haxe SDK and project for builds and
+ * one for launches. Launches use a separate server, so macros and programs executed by the compiler during launches do not affect the
+ * state of the server used for builds.
+ * <p>
+ * Compiler invocations that are executed with <code>--connect &lt;port&gt;</code> reuse the already typed modules of the std lib and
+ * haxelibs cached by the server instead of typing everything from scratch.
+ * <p>
+ * See https://haxe.org/manual/cr-completion-server.html
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeCompilationServer {
+
+   /**
+    * Stops the compilation servers of the selected projects, flushing their caches. They are restarted on demand.
+    */
+   public static final class ResetHandler extends AbstractHandler {
+
+      @Override
+      public @Nullable Object execute(final ExecutionEvent event) throws ExecutionException {
+         if (HandlerUtil.getCurrentSelection(event) instanceof final IStructuredSelection currentSelection) {
+            for (final var element : currentSelection) {
+               final var project = Projects.adapt(element);
+               if (project != null) {
+                  stopAll(project);
+               }
+            }
+            return Status.OK_STATUS;
+         }
+         return Status.CANCEL_STATUS;
+      }
+   }
+
+   private record Key(HaxeSDK haxeSDK, IProject project, boolean forLaunches) {
+   }
+
+   private static final int CONNECT_TIMEOUT_MS = 500;
+   private static final int STARTUP_TIMEOUT_MS = 10_000;
+
+   private static final Map<Key, HaxeCompilationServer> SERVERS = new HashMap<>();
+
+   /**
+    * Returns a running and responsive compilation server for builds of the given SDK/project combination, starting a new one if
+    * required.
+    *
+    * @return null if no compilation server could be started
+    */
+   public static @Nullable HaxeCompilationServer acquire(final HaxeSDK haxeSDK, final IProject project) {
+      return acquire(new Key(haxeSDK, project, false));
+   }
+
+   private static @Nullable HaxeCompilationServer acquire(final Key key) {
+      final HaxeCompilationServer server;
+      final var outdatedServers = new ArrayList<HaxeCompilationServer>();
+      synchronized (SERVERS) {
+         // stop servers of the same project and purpose that were started for a different SDK
+         SERVERS.entrySet().removeIf(e -> {
+            final var k = e.getKey();
+            if (k.project.equals(key.project) && k.forLaunches == key.forLaunches && !k.haxeSDK.equals(key.haxeSDK)) {
+               outdatedServers.add(e.getValue());
+               return true;
+            }
+            return false;
+         });
+         server = SERVERS.computeIfAbsent(key, k -> new HaxeCompilationServer(k.haxeSDK, k.project));
+      }
+      outdatedServers.forEach(HaxeCompilationServer::stop);
+
+      return server.ensureRunning() ? server : null;
+   }
+
+   /**
+    * Returns a running and responsive compilation server for launches of the given SDK/project combination, starting a new one if
+    * required. The server is kept alive between launches.
+    *
+    * @return null if no compilation server could be started
+    */
+   public static @Nullable HaxeCompilationServer acquireForLaunches(final HaxeSDK haxeSDK, final IProject project) {
+      return acquire(new Key(haxeSDK, project, true));
+   }
+
+   /**
+    * Stops the compilation servers of all projects.
+    */
+   public static void stopAll() {
+      final List<HaxeCompilationServer> servers;
+      synchronized (SERVERS) {
+         servers = new ArrayList<>(SERVERS.values());
+         SERVERS.clear();
+      }
+      servers.forEach(HaxeCompilationServer::stop);
+   }
+
+   /**
+    * Stops the compilation servers of the given project.
+    */
+   public static void stopAll(final IProject project) {
+      stop(project, false);
+      stop(project, true);
+   }
+
+   /**
+    * Stops the compilation servers used for builds of the given project.
+    */
+   public static void stopBuildServers(final IProject project) {
+      stop(project, false);
+   }
+
+   private static void stop(final IProject project, final boolean forLaunches) {
+      final var servers = new ArrayList<HaxeCompilationServer>();
+      synchronized (SERVERS) {
+         SERVERS.entrySet().removeIf(e -> {
+            if (e.getKey().project.equals(project) && e.getKey().forLaunches == forLaunches) {
+               servers.add(e.getValue());
+               return true;
+            }
+            return false;
+         });
+      }
+      servers.forEach(HaxeCompilationServer::stop);
+   }
+
+   private static int findFreePort() throws IOException {
+      try (var socket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+         return socket.getLocalPort();
+      }
+   }
+
+   public final HaxeSDK haxeSDK;
+   public final IProject project;
+
+   private int port = -1;
+   private @Nullable Process process;
+
+   private HaxeCompilationServer(final HaxeSDK haxeSDK, final IProject project) {
+      this.haxeSDK = haxeSDK;
+      this.project = project;
+   }
+
+   /**
+    * @return the value to be passed to the compiler via <code>--connect</code>
+    */
+   public String getConnectAddress() {
+      return InetAddress.getLoopbackAddress().getHostAddress() + ":" + port;
+   }
+
+   public int getPort() {
+      return port;
+   }
+
+   /**
+    * @return true if the server process is alive and accepts connections
+    */
+   public synchronized boolean isHealthy() {
+      final var process = this.process;
+      if (process == null || !process.isAlive())
+         return false;
+
+      try (var socket = new Socket()) {
+         socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), CONNECT_TIMEOUT_MS);
+         return true;
+      } catch (final IOException ex) {
+         return false;
+      }
+   }
+
+   private synchronized boolean ensureRunning() {
+      if (isHealthy())
+         return true;
+
+      stop();
+
+      try {
+         port = findFreePort();
+         final var proc = haxeSDK.getCompilerProcessBuilder(false) //
+            .withArgs("--wait", InetAddress.getLoopbackAddress().getHostAddress() + ":" + port) //
+            .withWorkingDirectory(asNonNull(project.getLocation()).toFile()) //
+            .withRedirectErrorToOutput() //
+            .withRedirectOutput(line -> Haxe4EPlugin.log().debug("[haxe --wait {0}] {1}", String.valueOf(port), line)) //
+            .start() //
+            .getProcess();
+         process = proc;
+
+         final var startedAt = System.currentTimeMillis();
+         while (System.currentTimeMillis() - startedAt < STARTUP_TIMEOUT_MS) {
+            if (!proc.isAlive()) {
+               break;
+            }
+            if (isHealthy()) {
+               Haxe4EPlugin.log().info("Started Haxe compilation server for project [{0}] on port {1}", project.getName(), //
+                  String.valueOf(port));
+               return true;
+            }
+            Thread.sleep(100);
+         }
+         Haxe4EPlugin.log().warn("Haxe compilation server for project [{0}] did not become ready.", project.getName());
+      } catch (final IOException ex) {
+         Haxe4EPlugin.log().error(ex, "Failed to start Haxe compilation server for project [{0}]", project.getName());
+      } catch (final InterruptedException ex) {
+         Threads.handleInterruptedException(ex);
+      }
+      stop();
+      return false;
+   }
+
+   public synchronized void stop() {
+      final var process = this.process;
+      if (process == null)
+         return;
+
+      this.process = null;
+      process.descendants().forEach(ProcessHandle::destroy);
+      process.destroy();
+      try {
+         if (!process.waitFor(2, TimeUnit.SECONDS)) {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+         }
+      } catch (final InterruptedException ex) {
+         Threads.handleInterruptedException(ex);
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "HaxeCompilationServer [project=" + project.getName() + ", sdk=" + haxeSDK.getName() + ", port=" + port + "]";
+   }
+}
@@ -0,0 +1,99 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.builder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IMarker;
+
+/**
+ * Diagnostics reported by the Haxe compiler.
+ * <p>
+ * Example output of Haxe 4:
+ *
+ * <pre>
+ * src/Main.hx:3: characters 5-12 : Type not found : Foo
+ * src/Main.hx:7: lines 7-10 : Missing return: Int
+ * src/Main.hx:12: characters 1-5 : Warning : This typedef is deprecated
+ * src/Main.hx:15: characters 9-10 : ... For function argument 'x'
+ * </pre>
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeCompilerDiagnostics {
+
+   /**
+    * @param file the file path as reported by the compiler, either relative to the project or absolute
+    * @param line first line of the affected range, 1-based
+    * @param endLine last line of the affected range, 1-based
+    * @param startColumn first column of the affected range, 0-based, <code>-1</code> if only lines were reported
+    * @param endColumn column after the affected range in the last line, 0-based, <code>-1</code> if only lines were reported
+    * @param severity one of {@link IMarker#SEVERITY_ERROR}, {@link IMarker#SEVERITY_WARNING}, {@link IMarker#SEVERITY_INFO}
+    */
+   public record Diagnostic(String file, int line, int endLine, int startColumn, int endColumn, int severity, String message) {
+   }
+
+   /**
+    * Consumes compiler output line by line and collects the reported diagnostics.
+    */
+   public static final class Parser implements Consumer<String> {
+
+      private static final Pattern DIAGNOSTIC = Pattern.compile("^(?<file>.+?\\.hx):(?<line>\\d+): " //
+            + "(?:characters? (?<col>\\d+)(?:-(?<endCol>\\d+))?|lines (?<lineFrom>\\d+)-(?<lineTo>\\d+)) : (?<msg>.*)$");
+
+      private final List<Diagnostic> diagnostics = new ArrayList<>();
+
+      @Override
+      public synchronized void accept(final String line) {
+         final var match = DIAGNOSTIC.matcher(line);
+         if (!match.matches())
+            return;
+
+         var message = match.group("msg").strip();
+
+         // "... " marks additional information belonging to the previous diagnostic, e.g. the argument a type error occurred in
+         if (message.startsWith("... ") && !diagnostics.isEmpty()) {
+            final var prev = diagnostics.remove(diagnostics.size() - 1);
+            diagnostics.add(new Diagnostic(prev.file, prev.line, prev.endLine, prev.startColumn, prev.endColumn, prev.severity, //
+               prev.message + " " + message.substring(4)));
+            return;
+         }
+
+         int severity = IMarker.SEVERITY_ERROR;
+         if (message.startsWith("Warning : ")) {
+            severity = IMarker.SEVERITY_WARNING;
+            message = message.substring("Warning : ".length());
+         } else if (message.startsWith("Info : ")) {
+            severity = IMarker.SEVERITY_INFO;
+            message = message.substring("Info : ".length());
+         }
+
+         final var lineNo = Integer.parseInt(match.group("line"));
+         final var col = match.group("col");
+         if (col == null) {
+            diagnostics.add(new Diagnostic(match.group("file"), Integer.parseInt(match.group("lineFrom")), //
+               Integer.parseInt(match.group("lineTo")), -1, -1, severity, message));
+         } else {
+            // the compiler reports 1-based columns with an exclusive end
+            final var startColumn = Integer.parseInt(col) - 1;
+            final var endCol = match.group("endCol");
+            final var endColumn = endCol == null ? startColumn + 1 : Math.max(startColumn, Integer.parseInt(endCol) - 1);
+            diagnostics.add(new Diagnostic(match.group("file"), lineNo, lineNo, startColumn, endColumn, severity, message));
+         }
+      }
+
+      public synchronized List<Diagnostic> getDiagnostics() {
+         return List.copyOf(diagnostics);
+      }
+   }
+
+   private HaxeCompilerDiagnostics() {
+   }
+}
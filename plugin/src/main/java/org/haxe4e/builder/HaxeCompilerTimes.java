@@ -0,0 +1,141 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.builder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Timings reported by the Haxe compiler when invoked with <code>--times</code> (and optionally <code>-D macro-times</code>).
+ * <p>
+ * Example output of Haxe 4:
+ *
+ * <pre>
+ * name                     | time(s) |   % |  p% |      # | info
+ * ----------------------------------------------------------------
+ *                          |   0.412 | 100 | 100 |      1 |
+ *   macro                  |   0.102 |  25 |  25 |     37 |
+ *     execution            |   0.080 |  19 |  78 |     37 | my.Macro.build
+ *   typing                 |   0.250 |  61 |  61 |    211 |
+ * ----------------------------------------------------------------
+ * total                    |   0.412 | 100 | 100 |      1 |
+ * </pre>
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeCompilerTimes {
+
+   /**
+    * @param phase name of the top level timer, e.g. <code>typing</code>, <code>macro</code>, <code>generate</code>
+    * @param path names of all timers from the top level timer down to this timer, separated by <code> &gt; </code>
+    * @param depth nesting level, <code>0</code> for top level timers
+    * @param percent percentage of the total time
+    * @param parentPercent percentage of the parent timer's time
+    * @param count number of times the timer was started
+    * @param info additional information, e.g. the module or macro the time was spent in
+    */
+   public record Entry(String phase, String path, int depth, double seconds, int percent, int parentPercent, int count, String info) {
+   }
+
+   /**
+    * Consumes compiler output line by line and collects the entries of the timing table.
+    */
+   public static final class Parser implements Consumer<String> {
+
+      private final List<Entry> entries = new ArrayList<>();
+      private final List<String> parentNames = new ArrayList<>();
+      private boolean inTable;
+      private double totalSeconds = -1;
+
+      @Override
+      public synchronized void accept(final String line) {
+         if (!inTable) {
+            if (line.startsWith("name") && line.contains("| time(s)")) {
+               inTable = true;
+               entries.clear();
+               parentNames.clear();
+               totalSeconds = -1;
+            }
+            return;
+         }
+
+         final var cols = line.split("\\|", -1);
+         if (cols.length < 5) {
+            if (!line.startsWith("---")) {
+               inTable = false;
+            }
+            return;
+         }
+
+         final var seconds = parseDouble(cols[1]);
+         if (seconds == null)
+            return;
+
+         final var nameCol = cols[0];
+         final var name = nameCol.trim();
+         if (name.isEmpty())
+            return; // root timer
+         if ("total".equals(name) && !Character.isWhitespace(nameCol.charAt(0))) {
+            totalSeconds = seconds;
+            inTable = false;
+            return;
+         }
+
+         // the root timer has no name, its children are indented by two spaces, nested timers by two more spaces per level
+         final var indent = nameCol.length() - nameCol.stripLeading().length();
+         final var depth = Math.max(0, indent / 2 - 1);
+         while (parentNames.size() > depth) {
+            parentNames.remove(parentNames.size() - 1);
+         }
+         parentNames.add(name);
+
+         entries.add(new Entry( //
+            parentNames.get(0), //
+            String.join(" > ", parentNames), //
+            depth, //
+            seconds, //
+            parseInt(cols[2]), //
+            parseInt(cols[3]), //
+            parseInt(cols[4]), //
+            cols.length > 5 ? cols[5].trim() : "" //
+         ));
+      }
+
+      public synchronized List<Entry> getEntries() {
+         return List.copyOf(entries);
+      }
+
+      /**
+       * @return the total compilation time in seconds or <code>-1</code> if not reported
+       */
+      public synchronized double getTotalSeconds() {
+         return totalSeconds;
+      }
+   }
+
+   private static @Nullable Double parseDouble(final String value) {
+      try {
+         return Double.valueOf(value.trim());
+      } catch (final NumberFormatException ex) {
+         return null;
+      }
+   }
+
+   private static int parseInt(final String value) {
+      try {
+         return Integer.parseInt(value.trim());
+      } catch (final NumberFormatException ex) {
+         return 0;
+      }
+   }
+
+   private HaxeCompilerTimes() {
+   }
+}
@@ -0,0 +1,183 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.builder;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.Nullable;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.builder.HaxeCompilerDiagnostics.Diagnostic;
+
+/**
+ * Maintains the problem markers created from the diagnostics reported by the Haxe compiler.
+ * <p>
+ * Markers are updated by diffing the reported diagnostics against the markers of the previous build of the same compilation unit, i.e.
+ * markers that still apply are left untouched and files without changed diagnostics do not receive resource change notifications. All
+ * changes of an update are applied in a single workspace operation.
+ *
+ * @author Sebastian Thomschke
+ */
+final class HaxeProblemMarkers {
+
+   static final String MARKER_TYPE = "org.haxe4e.problem";
+
+   /**
+    * key of the compilation unit that reported the problem, so concurrently built units don't remove each other's markers
+    */
+   private static final String ATTR_UNIT = "org.haxe4e.unit";
+
+   /**
+    * identity of the reported problem, used for diffing
+    */
+   private static final String ATTR_SIGNATURE = "org.haxe4e.signature";
+
+   /**
+    * Removes all Haxe problem markers of the given project.
+    */
+   static void clear(final IProject project) {
+      try {
+         project.deleteMarkers(MARKER_TYPE, false, IResource.DEPTH_INFINITE);
+      } catch (final CoreException ex) {
+         Haxe4EPlugin.log().error(ex);
+      }
+   }
+
+   /**
+    * @return the character offsets of the beginning of each line of the given file
+    */
+   private static int @Nullable [] getLineOffsets(final IFile file) {
+      final var location = file.getLocation();
+      if (location == null)
+         return null;
+      try {
+         final var content = Files.readString(Path.of(location.toOSString()), Charset.forName(file.getCharset()));
+         final var offsets = new ArrayList<Integer>();
+         offsets.add(0);
+         for (int i = 0, len = content.length(); i < len; i++) {
+            if (content.charAt(i) == '\n') {
+               offsets.add(i + 1);
+            }
+         }
+         return offsets.stream().mapToInt(Integer::intValue).toArray();
+      } catch (final IOException | CoreException | RuntimeException ex) {
+         Haxe4EPlugin.log().debug(ex);
+         return null;
+      }
+   }
+
+   private static IPath getLocation(final IProject project, final String file) {
+      final var path = org.eclipse.core.runtime.Path.fromOSString(file);
+      if (path.isAbsolute())
+         return path;
+      final var projectLoc = project.getLocation();
+      return projectLoc == null ? path : projectLoc.append(path);
+   }
+
+   private static String getSignature(final Diagnostic diagnostic) {
+      return diagnostic.file() + ":" + diagnostic.line() + "-" + diagnostic.endLine() + ":" + diagnostic.startColumn() + "-"
+            + diagnostic.endColumn() + ":" + diagnostic.severity() + ":" + diagnostic.message();
+   }
+
+   /**
+    * @return the resource the marker of the given diagnostic shall be attached to. Problems in files outside of the workspace, e.g.
+    *         in haxelibs, are attached to the project.
+    */
+   private static IResource getTarget(final IProject project, final IPath location) {
+      final var projectLoc = project.getLocation();
+      if (projectLoc != null && projectLoc.isPrefixOf(location)) {
+         final var file = project.getFile(location.makeRelativeTo(projectLoc));
+         if (file.exists())
+            return file;
+      }
+      for (final var file : ResourcesPlugin.getWorkspace().getRoot().findFilesForLocationURI(location.toFile().toURI())) {
+         if (file.exists())
+            return file;
+      }
+      return project;
+   }
+
+   /**
+    * Replaces the markers previously created for the given compilation unit by markers for the given diagnostics.
+    */
+   static void update(final IProject project, final String unitKey, final List<Diagnostic> diagnostics, final IProgressMonitor monitor) {
+      if (!project.isAccessible())
+         return;
+
+      final var workspace = ResourcesPlugin.getWorkspace();
+      try {
+         workspace.run(m -> {
+            final var obsoleteMarkers = new HashMap<String, IMarker>();
+            for (final var marker : project.findMarkers(MARKER_TYPE, false, IResource.DEPTH_INFINITE)) {
+               if (unitKey.equals(marker.getAttribute(ATTR_UNIT, ""))) {
+                  obsoleteMarkers.put(marker.getAttribute(ATTR_SIGNATURE, ""), marker);
+               }
+            }
+
+            final var newDiagnostics = new LinkedHashMap<String, Diagnostic>();
+            for (final var diagnostic : diagnostics) {
+               final var signature = getSignature(diagnostic);
+               if (obsoleteMarkers.remove(signature) == null) {
+                  newDiagnostics.putIfAbsent(signature, diagnostic);
+               }
+            }
+
+            for (final var marker : obsoleteMarkers.values()) {
+               marker.delete();
+            }
+
+            final var lineOffsetsByFile = new HashMap<IFile, int @Nullable []>();
+            for (final var entry : newDiagnostics.entrySet()) {
+               final var diagnostic = entry.getValue();
+               final var location = getLocation(project, diagnostic.file());
+               final var target = getTarget(project, location);
+
+               final var attrs = new HashMap<String, Object>();
+               attrs.put(ATTR_UNIT, unitKey);
+               attrs.put(ATTR_SIGNATURE, entry.getKey());
+               attrs.put(IMarker.SEVERITY, diagnostic.severity());
+               attrs.put(IMarker.MESSAGE, diagnostic.message());
+               attrs.put(IMarker.LINE_NUMBER, diagnostic.line());
+               if (target instanceof final IFile file) {
+                  attrs.put(IMarker.LOCATION, "line " + diagnostic.line());
+                  if (diagnostic.startColumn() > -1) {
+                     final var lineOffsets = lineOffsetsByFile.computeIfAbsent(file, HaxeProblemMarkers::getLineOffsets);
+                     if (lineOffsets != null && diagnostic.line() <= lineOffsets.length) {
+                        final var lineOffset = lineOffsets[diagnostic.line() - 1];
+                        attrs.put(IMarker.CHAR_START, lineOffset + diagnostic.startColumn());
+                        attrs.put(IMarker.CHAR_END, lineOffset + diagnostic.endColumn());
+                     }
+                  }
+               } else {
+                  attrs.put(IMarker.LOCATION, location.toOSString() + ":" + diagnostic.line());
+               }
+               target.createMarker(MARKER_TYPE, attrs);
+            }
+         }, workspace.getRuleFactory().markerRule(project), IWorkspace.AVOID_UPDATE, monitor);
+      } catch (final CoreException ex) {
+         Haxe4EPlugin.log().error(ex);
+      }
+   }
+
+   private HaxeProblemMarkers() {
+   }
+}
@@ -0,0 +1,139 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.builder;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jdt.annotation.Nullable;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.model.Haxelib;
+import org.haxe4e.project.HaxeProjectNature;
+
+/**
+ * Dependency graph of the Haxe projects of the workspace, derived from haxelibs (usually registered via <code>haxelib dev</code>) that
+ * are located in other workspace projects.
+ * <p>
+ * The graph is kept acyclic: a dependency that would close a cycle is ignored, so dependent projects can never trigger each other's
+ * builds endlessly.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeProjectGraph {
+
+   public static final HaxeProjectGraph INSTANCE = new HaxeProjectGraph();
+
+   private static @Nullable IProject findProviderProject(final IProject consumer, final Path haxelibLocation) {
+      for (final var project : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
+         if (project.equals(consumer) || !HaxeProjectNature.hasNature(project)) {
+            continue;
+         }
+         final var projectLoc = project.getLocation();
+         if (projectLoc != null && haxelibLocation.startsWith(projectLoc.toFile().toPath()))
+            return project;
+      }
+      return null;
+   }
+
+   /**
+    * consumer project -> provider project -> class path folders of the haxelibs located in the provider project
+    */
+   private final Map<IProject, Map<IProject, List<Path>>> graph = new HashMap<>();
+
+   private HaxeProjectGraph() {
+   }
+
+   /**
+    * @return the class path folders of the haxelibs provided by the given provider project to the given consumer project
+    */
+   public List<Path> getLibraryClassPaths(final IProject consumer, final IProject provider) {
+      synchronized (graph) {
+         final var providers = graph.get(consumer);
+         if (providers == null)
+            return List.of();
+         return List.copyOf(providers.getOrDefault(provider, List.of()));
+      }
+   }
+
+   /**
+    * @return the workspace projects providing haxelibs to the given project
+    */
+   public List<IProject> getProviders(final IProject consumer) {
+      synchronized (graph) {
+         final var providers = graph.get(consumer);
+         return providers == null ? List.of() : List.copyOf(providers.keySet());
+      }
+   }
+
+   private boolean isReachable(final IProject from, final IProject to) {
+      final var visited = new HashSet<IProject>();
+      final var queue = new ArrayDeque<IProject>();
+      queue.add(from);
+      while (!queue.isEmpty()) {
+         final var project = queue.poll();
+         if (project.equals(to))
+            return true;
+         if (visited.add(project)) {
+            final var providers = graph.get(project);
+            if (providers != null) {
+               queue.addAll(providers.keySet());
+            }
+         }
+      }
+      return false;
+   }
+
+   public void remove(final IProject project) {
+      synchronized (graph) {
+         graph.remove(project);
+         graph.values().forEach(providers -> providers.remove(project));
+      }
+   }
+
+   /**
+    * Updates the providers of the given project based on its resolved haxelibs.
+    *
+    * @return the workspace projects providing haxelibs to the given project
+    */
+   public List<IProject> update(final IProject consumer, final Collection<Haxelib> haxelibs) {
+      synchronized (graph) {
+         graph.remove(consumer);
+
+         final var providers = new LinkedHashMap<IProject, List<Path>>();
+         for (final var haxelib : haxelibs) {
+            final var provider = findProviderProject(consumer, haxelib.location);
+            if (provider == null) {
+               continue;
+            }
+
+            if (isReachable(provider, consumer)) {
+               Haxe4EPlugin.log().warn("Ignoring circular dependency of project [{0}] on project [{1}] via haxelib [{2}].", //
+                  consumer.getName(), provider.getName(), haxelib.meta.name);
+               continue;
+            }
+
+            final var classPath = haxelib.meta.classPath;
+            providers.computeIfAbsent(provider, p -> new ArrayList<>()) //
+               .add(classPath == null || classPath.isBlank() ? haxelib.location : haxelib.location.resolve(classPath));
+         }
+
+         if (!providers.isEmpty()) {
+            graph.put(consumer, providers);
+         }
+         return List.copyOf(providers.keySet());
+      }
+   }
+}
@@ -0,0 +1,122 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.builder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.ui.IEditorPart;
+import org.eclipse.ui.PartInitException;
+import org.eclipse.ui.console.IHyperlink;
+import org.eclipse.ui.ide.IDE;
+import org.eclipse.ui.texteditor.ITextEditor;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.editor.HaxeEditor;
+
+import de.sebthom.eclipse.commons.ui.UI;
+
+/**
+ * Console hyperlink to a source location reported by the Haxe compiler, either in a workspace file or in a file outside of the
+ * workspace, e.g. of the std lib or a haxelib.
+ * <p>
+ * The character offsets are computed from the editor's document when the link is activated, so creating links does not require
+ * reading the linked files.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeSourceLink implements IHyperlink {
+
+   /**
+    * @param line 1-based line number
+    * @return a link to the given line of the given file, preferring a workspace file over the file outside of the workspace, or null
+    *         if the file does not exist
+    */
+   public static @Nullable HaxeSourceLink of(final Path file, final int line) {
+      for (final var workspaceFile : ResourcesPlugin.getWorkspace().getRoot().findFilesForLocationURI(file.toUri())) {
+         if (workspaceFile.exists())
+            return new HaxeSourceLink(workspaceFile, null, line, -1, -1);
+      }
+      if (Files.isRegularFile(file))
+         return new HaxeSourceLink(null, EFS.getLocalFileSystem().getStore(file.toUri()), line, -1, -1);
+      return null;
+   }
+
+   private final @Nullable IFile file;
+   private final @Nullable IFileStore fileStore;
+   private final int line;
+   private final int startColumn;
+   private final int endColumn;
+
+   /**
+    * @param line 1-based line number
+    * @param startColumn 0-based column or <code>-1</code> if unknown
+    * @param endColumn 0-based exclusive column or <code>-1</code> if unknown
+    */
+   public HaxeSourceLink(final @Nullable IFile file, final @Nullable IFileStore fileStore, final int line, final int startColumn,
+         final int endColumn) {
+      this.file = file;
+      this.fileStore = fileStore;
+      this.line = line;
+      this.startColumn = startColumn;
+      this.endColumn = endColumn;
+   }
+
+   @Override
+   public void linkActivated() {
+      final var page = UI.getActiveWorkbenchPage();
+      try {
+         final IEditorPart editor;
+         final var file = this.file;
+         final var fileStore = this.fileStore;
+         if (file != null) {
+            editor = IDE.openEditor(page, file, HaxeEditor.ID, true);
+         } else if (fileStore != null) {
+            editor = IDE.openEditorOnFileStore(page, fileStore);
+         } else
+            return;
+
+         if (editor instanceof final ITextEditor textEditor) {
+            reveal(textEditor);
+         }
+      } catch (final PartInitException ex) {
+         Haxe4EPlugin.log().error(ex, ex.getMessage());
+      }
+   }
+
+   @Override
+   public void linkEntered() {
+   }
+
+   @Override
+   public void linkExited() {
+   }
+
+   private void reveal(final ITextEditor editor) {
+      final var doc = editor.getDocumentProvider().getDocument(editor.getEditorInput());
+      if (doc == null || line < 1 || line > doc.getNumberOfLines())
+         return;
+      try {
+         final var lineOffset = doc.getLineOffset(line - 1);
+         final var lineLength = doc.getLineLength(line - 1);
+         if (startColumn < 0) {
+            editor.selectAndReveal(lineOffset, 0);
+         } else {
+            final var start = Math.min(startColumn, lineLength);
+            final var end = Math.max(start, Math.min(endColumn, lineLength));
+            editor.selectAndReveal(lineOffset + start, end - start);
+         }
+      } catch (final BadLocationException ex) {
+         Haxe4EPlugin.log().debug(ex);
+      }
+   }
+}
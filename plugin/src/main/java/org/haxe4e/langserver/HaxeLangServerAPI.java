@@ -6,11 +6,32 @@
  */
 package org.haxe4e.langserver;
 
+import java.util.Map;
+
+import org.eclipse.lsp4j.jsonrpc.services.JsonNotification;
 import org.eclipse.lsp4j.services.LanguageServer;
 
 /**
+ * https://github.com/vshaxe/haxe-language-server/blob/master/shared/haxeLanguageServer/LanguageServerMethods.hx
+ *
  * @author Sebastian Thomschke
  */
 public interface HaxeLangServerAPI extends LanguageServer {
 
+   /**
+    * Replaces the compiler arguments used by the display server, e.g. after the build file changed. The display server keeps its
+    * compilation cache.
+    *
+    * @param params <code>{arguments: Array&lt;String&gt;}</code>
+    */
+   @JsonNotification("haxe/didChangeDisplayArguments")
+   void didChangeDisplayArguments(Map<String, Object> params);
+
+   /**
+    * Restarts the display server with the given configuration, e.g. after the Haxe SDK changed.
+    *
+    * @param config https://github.com/vshaxe/haxe-language-server/blob/master/shared/haxeLanguageServer/DisplayServerConfig.hx
+    */
+   @JsonNotification("haxe/didChangeDisplayServerConfig")
+   void didChangeDisplayServerConfig(Object config);
 }
@@ -0,0 +1,390 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.langserver;
+
+import static net.sf.jstuff.core.validation.NullAnalysisHelper.asNonNull;
+import static net.sf.jstuff.core.validation.NullAnalysisHelper.asNullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.lsp4e.LanguageServers;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.builder.HaxeBuildCache;
+import org.haxe4e.model.HaxeSDK;
+import org.haxe4e.model.Haxelib;
+import org.haxe4e.prefs.HaxeProjectPreference;
+import org.haxe4e.prefs.HaxeWorkspacePreference;
+import org.haxe4e.project.HaxeProjectNature;
+import org.haxe4e.util.TreeBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.sf.jstuff.core.Strings;
+
+/**
+ * Computes the initialization options of the Haxe language server of a project.
+ * <p>
+ * For Lime and Lix projects the options contain the project's haxelibs, whose resolution may take long or even install missing
+ * haxelibs. The options are therefore computed in the background whenever the project configuration changes and persisted per project
+ * together with a fingerprint of the build files, the SDK and the haxelib state. Starting a language server never waits for a
+ * dependency resolution: if the persisted options are outdated they are used until the recomputed options are available.
+ * <p>
+ * Recomputed options differing from the ones a running language server was started with are pushed to it, so the display server keeps
+ * its compilation cache instead of being restarted.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeLangServerInitOptions {
+
+   /**
+    * @param fingerprint the state of the project configuration the options were computed for
+    * @param haxelibStamps modification times of the <code>.current</code>, <code>.dev</code> and <code>haxelib.json</code> files of
+    *           the haxelibs contained in the options, see {@link HaxeBuildCache#getHaxelibStamps(Path, java.util.Collection)}
+    */
+   private record CachedOptions(String fingerprint, Map<String, Long> haxelibStamps, Map<String, Object> options) {
+
+      /**
+       * @param fingerprint the current fingerprint of the project configuration
+       */
+      boolean isValid(final String fingerprint) {
+         if (!this.fingerprint.equals(fingerprint))
+            return false;
+         final var stamps = new HashMap<Path, Long>();
+         haxelibStamps.forEach((path, stamp) -> stamps.put(Paths.get(path), stamp));
+         return HaxeBuildCache.isUnchanged(stamps);
+      }
+   }
+
+   public static final HaxeLangServerInitOptions INSTANCE = new HaxeLangServerInitOptions();
+
+   private static final ObjectMapper JSON = new ObjectMapper();
+
+   private static final String KEY_DISPLAY_ARGUMENTS = "displayArguments";
+   private static final String KEY_DISPLAY_SERVER_CONFIG = "displayServerConfig";
+
+   /**
+    * @param resolveDependencies if false, the haxelibs of Lime and Lix projects are not resolved
+    * @param resolvedHaxelibs receives the haxelibs contained in the computed options
+    */
+   private static Map<String, Object> compute(final @Nullable IProject project, final boolean resolveDependencies,
+         final List<Haxelib> resolvedHaxelibs, final IProgressMonitor monitor) {
+      final @Nullable HaxeSDK haxeSDK;
+      final var displayServerArgs = new ArrayList<String>();
+
+      if (project == null) {
+         haxeSDK = HaxeWorkspacePreference.getDefaultHaxeSDK(true, true);
+      } else {
+         final var projectPrefs = HaxeProjectPreference.get(project);
+         haxeSDK = projectPrefs.getEffectiveHaxeSDK();
+         final var buildFile = projectPrefs.getBuildFile();
+         if (buildFile != null) {
+            switch (projectPrefs.getBuildSystem()) {
+               case HAXE:
+                  displayServerArgs.add(asNonNull(buildFile.location.getLocation()).toOSString());
+                  break;
+               case LIME:
+                  for (final var source : buildFile.getSourcePaths()) {
+                     displayServerArgs.add("--class-path");
+                     displayServerArgs.add(source.toString());
+                  }
+                  if (haxeSDK != null && resolveDependencies) {
+                     for (final var haxelib : buildFile.getDependencies(haxeSDK, monitor)) {
+                        resolvedHaxelibs.add(haxelib);
+                        displayServerArgs.add("--library");
+                        if (Strings.isBlank(haxelib.meta.version)) {
+                           displayServerArgs.add(haxelib.meta.name);
+                        } else {
+                           displayServerArgs.add(haxelib.meta.name + ":" + haxelib.meta.version);
+                        }
+                     }
+                  }
+
+                  // Haxe target cannot be set in project.xml file, thus we give the display server a sys target supported by lime
+                  // to prevent "This class is not available on this target" during code completion
+                  displayServerArgs.add("-hl");
+                  displayServerArgs.add("ignored.hl");
+                  break;
+               case LIX:
+                  for (final var source : buildFile.getSourcePaths()) {
+                     displayServerArgs.add("--class-path");
+                     displayServerArgs.add(source.toString());
+                  }
+                  if (haxeSDK != null && resolveDependencies) {
+                     for (final var haxelib : buildFile.getDependencies(haxeSDK, monitor)) {
+                        resolvedHaxelibs.add(haxelib);
+                        displayServerArgs.add("--class-path");
+                        displayServerArgs.add(haxelib.location.resolve(Strings.defaultIfNull(haxelib.meta.classPath, ".")).toString());
+                     }
+                  }
+                  break;
+               default:
+                  throw new UnsupportedOperationException("Unsupported build-system: " + projectPrefs.getBuildSystem());
+            }
+         }
+      }
+      final var nekoVM = haxeSDK == null ? null : haxeSDK.getNekoVM();
+
+      // InitOptions https://github.com/vshaxe/haxe-language-server/blob/master/src/haxeLanguageServer/Configuration.hx#L122
+      return new TreeBuilder<String>() //
+         // https://github.com/vshaxe/haxe-language-server/blob/master/shared/haxeLanguageServer/DisplayServerConfig.hx
+         .put(KEY_DISPLAY_SERVER_CONFIG, new TreeBuilder<String>() //
+            .put("path", haxeSDK == null ? null : haxeSDK.getCompilerExecutable().toString()) //
+            .compute("env", leaf -> {
+               if (haxeSDK == null)
+                  return;
+
+               leaf.put("PATH", //
+                  haxeSDK.getHaxelibExecutable().getParent() // add haxelib to path which is executed by Haxe Display Server
+                        + File.pathSeparator //
+                        + (nekoVM == null ? null : nekoVM.getInstallRoot()) // add Neko to path which is required by haxelib
+               );
+
+               // required for haxelib process spawned Haxe Display Server to analyze dependencies
+               leaf.put(HaxeSDK.ENV_HAXELIB_PATH, haxeSDK.getHaxelibsDir().toString());
+            })
+            // ConfigurePrintParams https://github.com/HaxeFoundation/haxe/blob/development/std/haxe/display/Server.hx#L49
+            .put("print", "completion", false) // if true, logs completion response to console
+            .put("print", "reusing", false) // no idea what this does
+         ) //
+         .put(KEY_DISPLAY_ARGUMENTS, displayServerArgs) //
+         // HaxelibConfig https://github.com/vshaxe/haxe-language-server/blob/master/src/haxeLanguageServer/Configuration.hx#L9
+         .put("haxelibConfig", "executable", haxeSDK == null ? null : haxeSDK.getHaxelibExecutable().toString()) //
+         .getMap();
+   }
+
+   /**
+    * @return a fingerprint of the state the initialization options of the given project depend on besides the state of the resolved
+    *         haxelibs, which is tracked by {@link CachedOptions#haxelibStamps}. Computing it is cheap, i.e. it only reads file
+    *         timestamps.
+    */
+   private static String getFingerprint(final IProject project) {
+      final var prefs = HaxeProjectPreference.get(project);
+      final var fingerprint = new StringBuilder();
+      final var haxeSDK = prefs.getEffectiveHaxeSDK();
+      fingerprint.append("sdk=").append(haxeSDK == null ? "" : haxeSDK.getInstallRoot());
+      fingerprint.append(";buildSystem=").append(prefs.getBuildSystem());
+
+      final var buildFile = prefs.getBuildFile();
+      if (buildFile != null) {
+         try {
+            for (final var file : buildFile.getBuildFiles()) {
+               final var location = file.getLocation();
+               fingerprint.append(";").append(file.getProjectRelativePath()).append("=") //
+                  .append(location == null ? "" : lastModified(location.toFile().toPath()));
+            }
+         } catch (final RuntimeException ex) {
+            fingerprint.append(";").append(buildFile.location.getProjectRelativePath());
+         }
+      }
+
+      // project local haxelib state, e.g. of Lix or haxelib repositories created with "haxelib newrepo"
+      final var projectLoc = project.getLocation();
+      if (projectLoc != null) {
+         final var projectDir = projectLoc.toFile().toPath();
+         for (final var name : List.of("haxelib.json", ".haxerc", "haxe_libraries", ".haxelib")) {
+            fingerprint.append(";").append(name).append("=").append(lastModified(projectDir.resolve(name)));
+         }
+      }
+      return fingerprint.toString();
+   }
+
+   private static long lastModified(final Path path) {
+      try {
+         return Files.getLastModifiedTime(path).toMillis();
+      } catch (final IOException ex) {
+         return -1;
+      }
+   }
+
+   private final Map<IProject, CachedOptions> cache = new HashMap<>();
+
+   /**
+    * the options most recently handed to or pushed to the language server of a project
+    */
+   private final Map<IProject, Map<String, Object>> sentOptions = new HashMap<>();
+
+   /**
+    * one job per project, so computations of the same project are serialized
+    */
+   private final Map<IProject, Job> jobs = new WeakHashMap<>();
+
+   private HaxeLangServerInitOptions() {
+   }
+
+   /**
+    * @return the initialization options of the language server of the given project without blocking on dependency resolution
+    */
+   public Map<String, Object> get(final @Nullable IProject project) {
+      final Map<String, Object> options;
+      if (project == null || !HaxeProjectNature.hasNature(project)) {
+         options = compute(project, false, new ArrayList<>(), new NullProgressMonitor());
+      } else {
+         final var cached = getCached(project);
+         if (cached == null) {
+            // the class paths suffice for a first start, the haxelibs are added once resolved
+            options = compute(project, false, new ArrayList<>(), new NullProgressMonitor());
+            update(project);
+         } else {
+            options = new LinkedHashMap<>(cached.options);
+            if (!cached.isValid(getFingerprint(project))) {
+               update(project);
+            }
+         }
+      }
+      if (project != null) {
+         synchronized (sentOptions) {
+            sentOptions.put(project, options);
+         }
+      }
+      options.put("sendMethodResults", HaxeWorkspacePreference.isLSPTraceMethodResults());
+      return options;
+   }
+
+   private @Nullable CachedOptions getCached(final IProject project) {
+      synchronized (cache) {
+         final var cached = cache.get(project);
+         if (cached != null)
+            return cached;
+
+         final var cacheFile = getCacheFile(project);
+         if (!Files.exists(cacheFile))
+            return null;
+         try {
+            final var persisted = JSON.readValue(cacheFile.toFile(), new TypeReference<CachedOptions>() {});
+            if (asNullable(persisted.haxelibStamps) == null)
+               return null; // persisted by a previous version
+            cache.put(project, persisted);
+            return persisted;
+         } catch (final IOException ex) {
+            Haxe4EPlugin.log().debug(ex);
+            return null;
+         }
+      }
+   }
+
+   /**
+    * Sends the display configuration to the running language server of the given project if it differs from the one the server
+    * currently uses.
+    */
+   private void pushToLangServer(final IProject project, final Map<String, Object> options) {
+      final Map<String, Object> previous;
+      synchronized (sentOptions) {
+         previous = sentOptions.get(project);
+         if (previous == null)
+            return; // no language server was started for the project yet
+         sentOptions.put(project, options);
+      }
+
+      final var displayServerConfig = options.get(KEY_DISPLAY_SERVER_CONFIG);
+      final var displayArgs = options.get(KEY_DISPLAY_ARGUMENTS);
+      final var isDisplayServerConfigChanged = !Objects.equals(previous.get(KEY_DISPLAY_SERVER_CONFIG), displayServerConfig);
+      final var isDisplayArgsChanged = !Objects.equals(previous.get(KEY_DISPLAY_ARGUMENTS), displayArgs);
+      if (!isDisplayServerConfigChanged && !isDisplayArgsChanged)
+         return;
+
+      LanguageServers.forProject(project).excludeInactive().computeAll(server -> {
+         if (server instanceof final HaxeLangServerAPI haxeServer) {
+            if (isDisplayServerConfigChanged && displayServerConfig != null) {
+               Haxe4EPlugin.log().debug("Sending changed display server config of project {0}.", project.getName());
+               haxeServer.didChangeDisplayServerConfig(displayServerConfig);
+            }
+            if (isDisplayArgsChanged && displayArgs != null) {
+               Haxe4EPlugin.log().debug("Sending changed display arguments of project {0}.", project.getName());
+               haxeServer.didChangeDisplayArguments(Map.of("arguments", displayArgs));
+            }
+         }
+         return CompletableFuture.completedFuture(null);
+      });
+   }
+
+   private Path getCacheFile(final IProject project) {
+      return Haxe4EPlugin.get().getStateLocation().toFile().toPath().resolve("langserver-init-options").resolve(project.getName()
+            + ".json");
+   }
+
+   /**
+    * Recomputes the initialization options of the given project in the background if the project configuration changed since they
+    * were computed.
+    */
+   public void update(final IProject project) {
+      if (!HaxeProjectNature.hasNature(project))
+         return;
+
+      final Job job;
+      synchronized (jobs) {
+         job = jobs.computeIfAbsent(project, p -> {
+            final var newJob = new Job("Computing Haxe language server options of project '" + p.getName() + "'...") {
+               @Override
+               protected IStatus run(final IProgressMonitor monitor) {
+                  return updateNow(p, monitor);
+               }
+            };
+            newJob.setPriority(Job.BUILD);
+            newJob.setSystem(true);
+            return newJob;
+         });
+      }
+      job.schedule(); // if the job is running it is rescheduled once it is done
+   }
+
+   private IStatus updateNow(final IProject project, final IProgressMonitor monitor) {
+      if (!project.isAccessible())
+         return Status.OK_STATUS;
+
+      // the fingerprint is determined first, so changes made during the computation result in another computation
+      final var fingerprint = getFingerprint(project);
+      final var cached = getCached(project);
+      if (cached != null && cached.isValid(fingerprint))
+         return Status.OK_STATUS;
+
+      try {
+         final var haxelibs = new ArrayList<Haxelib>();
+         final var options = compute(project, true, haxelibs, monitor);
+         if (monitor.isCanceled())
+            return Status.CANCEL_STATUS;
+
+         final var haxeSDK = HaxeProjectPreference.get(project).getEffectiveHaxeSDK();
+         final var haxelibStamps = new HashMap<String, Long>();
+         if (haxeSDK != null) {
+            HaxeBuildCache.getHaxelibStamps(haxeSDK.getHaxelibsDir(), haxelibs) //
+               .forEach((path, stamp) -> haxelibStamps.put(path.toString(), stamp));
+         }
+         final var computed = new CachedOptions(fingerprint, haxelibStamps, options);
+         synchronized (cache) {
+            cache.put(project, computed);
+            final var cacheFile = getCacheFile(project);
+            Files.createDirectories(asNonNull(cacheFile.getParent()));
+            JSON.writeValue(cacheFile.toFile(), computed);
+         }
+         pushToLangServer(project, options);
+         return Status.OK_STATUS;
+      } catch (final Exception ex) {
+         return Haxe4EPlugin.status().createError(ex, "Failed to compute Haxe language server options of project '" + project.getName()
+               + "'.");
+      }
+   }
+}
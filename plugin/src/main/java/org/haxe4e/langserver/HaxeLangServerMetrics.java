@@ -0,0 +1,355 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.langserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.prefs.HaxeWorkspacePreference;
+import org.haxe4e.util.Histogram;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Collects per-method latency and payload-size histograms of the JSON-RPC communication with the Haxe language servers.
+ * <p>
+ * The streams returned by {@link Connection#instrument(InputStream)} and {@link Connection#instrument(OutputStream)} extract the
+ * messages from the <code>Content-Length</code> framed communication. The messages are analyzed on a background thread which
+ * correlates requests with their responses by id. The measured latency is the time between the request being written to and the
+ * response being read from the language server process, i.e. it covers node.js and the Haxe display server but not Eclipse's
+ * processing of the response.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeLangServerMetrics {
+
+   public static final class MethodMetrics {
+      public final String method;
+
+      /**
+       * time between request and response in microseconds, empty for notifications
+       */
+      public final Histogram latency = new Histogram();
+
+      /**
+       * size of the request or notification in bytes
+       */
+      public final Histogram requestSize = new Histogram();
+
+      /**
+       * size of the response in bytes, empty for notifications
+       */
+      public final Histogram responseSize = new Histogram();
+
+      MethodMetrics(final String method) {
+         this.method = method;
+      }
+   }
+
+   private record PendingRequest(String method, long startNanos) {
+   }
+
+   /**
+    * The communication with one language server process. Request ids are only unique per connection.
+    */
+   public final class Connection {
+
+      /**
+       * pending requests by id, only accessed by the analyzer thread
+       */
+      private final Map<String, PendingRequest> pendingClientRequests = new HashMap<>();
+      private final Map<String, PendingRequest> pendingServerRequests = new HashMap<>();
+
+      private Connection() {
+      }
+
+      /**
+       * @return a stream collecting metrics of the messages read from the language server
+       */
+      public InputStream instrument(final InputStream in) {
+         final var messages = new MessageSplitter(this, true);
+         return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+               final var b = super.read();
+               messages.accept(b);
+               return b;
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+               final var count = super.read(b, off, len);
+               if (count > 0) {
+                  messages.accept(b, off, count);
+               }
+               return count;
+            }
+         };
+      }
+
+      /**
+       * @return a stream collecting metrics of the messages written to the language server
+       */
+      public OutputStream instrument(final OutputStream out) {
+         final var messages = new MessageSplitter(this, false);
+         return new FilterOutputStream(out) {
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+               out.write(b, off, len); // FilterOutputStream would write byte by byte
+               messages.accept(b, off, len);
+            }
+
+            @Override
+            public void write(final int b) throws IOException {
+               out.write(b);
+               messages.accept(b);
+            }
+         };
+      }
+   }
+
+   /**
+    * Splits the bytes of one direction of the communication into messages.
+    */
+   private final class MessageSplitter {
+      private final Connection connection;
+      private final boolean isFromServer;
+      private final ByteArrayOutputStream headerLine = new ByteArrayOutputStream(64);
+      private @Nullable ByteArrayOutputStream body;
+      private int contentLength = -1;
+      private int remainingBodyBytes;
+
+      MessageSplitter(final Connection connection, final boolean isFromServer) {
+         this.connection = connection;
+         this.isFromServer = isFromServer;
+      }
+
+      void accept(final byte[] b, final int off, final int len) {
+         var i = off;
+         final var end = off + len;
+         while (i < end) {
+            if (remainingBodyBytes > 0) {
+               final var n = Math.min(remainingBodyBytes, end - i);
+               final var body = this.body;
+               if (body != null) {
+                  body.write(b, i, n);
+               }
+               remainingBodyBytes -= n;
+               i += n;
+               if (remainingBodyBytes == 0) {
+                  onBodyComplete();
+               }
+            } else {
+               accept(b[i]);
+               i++;
+            }
+         }
+      }
+
+      void accept(final int b) {
+         if (b < 0)
+            return;
+
+         if (remainingBodyBytes > 0) {
+            final var body = this.body;
+            if (body != null) {
+               body.write(b);
+            }
+            remainingBodyBytes--;
+            if (remainingBodyBytes == 0) {
+               onBodyComplete();
+            }
+            return;
+         }
+
+         if (b != '\n') {
+            headerLine.write(b);
+            return;
+         }
+
+         final var line = headerLine.toString(StandardCharsets.US_ASCII).strip();
+         headerLine.reset();
+         if (line.isEmpty()) {
+            // end of headers
+            if (contentLength > 0) {
+               remainingBodyBytes = contentLength;
+               body = isEnabled() ? new ByteArrayOutputStream(contentLength) : null;
+            }
+            contentLength = -1;
+         } else if (line.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+            try {
+               contentLength = Integer.parseInt(line.substring(15).strip());
+            } catch (final NumberFormatException ex) {
+               contentLength = -1;
+            }
+         }
+      }
+
+      private void onBodyComplete() {
+         final var body = this.body;
+         this.body = null;
+         if (body != null) {
+            final var receivedNanos = System.nanoTime();
+            ANALYZER.execute(() -> analyze(connection, isFromServer, body.toByteArray(), receivedNanos));
+         }
+      }
+   }
+
+   public static final HaxeLangServerMetrics INSTANCE = new HaxeLangServerMetrics(HaxeWorkspacePreference::isLSPMetrics);
+
+   /**
+    * a single thread, so messages are analyzed in the order they were sent and received
+    */
+   private static final ExecutorService ANALYZER = Executors.newSingleThreadExecutor(runnable -> {
+      final var thread = new Thread(runnable, "Haxe Language Server Metrics");
+      thread.setDaemon(true);
+      return thread;
+   });
+
+   private static final JsonFactory JSON_FACTORY = new JsonFactory();
+   private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+   private static final int MAX_PENDING_REQUESTS = 10_000;
+   private static final long SETTINGS_REFRESH_INTERVAL_MS = 1_000;
+
+   private final BooleanSupplier isEnabledSetting;
+   private volatile boolean isEnabled;
+   private volatile long settingsRefreshedAt;
+
+   private final Map<String, MethodMetrics> metrics = new ConcurrentHashMap<>();
+
+   private HaxeLangServerMetrics(final BooleanSupplier isEnabledSetting) {
+      this.isEnabledSetting = isEnabledSetting;
+   }
+
+   /**
+    * Runs on the analyzer thread.
+    */
+   private void analyze(final Connection connection, final boolean isFromServer, final byte[] message, final long receivedNanos) {
+      @Nullable String id = null;
+      @Nullable String method = null;
+      boolean isResponse = false;
+      try (var parser = JSON_FACTORY.createParser(message)) {
+         if (parser.nextToken() != JsonToken.START_OBJECT)
+            return;
+         // only the top-level fields are of interest, their values are skipped
+         while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final var field = parser.currentName();
+            final var value = parser.nextToken();
+            switch (field) {
+               case "id" -> id = value == JsonToken.VALUE_NULL ? null : parser.getText();
+               case "method" -> method = parser.getText();
+               case "result", "error" -> isResponse = true;
+               default -> { /* ignore */ }
+            }
+            parser.skipChildren();
+            if (id != null && (method != null || isResponse)) {
+               break;
+            }
+         }
+      } catch (final IOException ex) {
+         Haxe4EPlugin.log().debug(ex);
+         return;
+      }
+
+      final var ownPendingRequests = isFromServer ? connection.pendingServerRequests : connection.pendingClientRequests;
+      final var otherPendingRequests = isFromServer ? connection.pendingClientRequests : connection.pendingServerRequests;
+
+      if (method != null) {
+         getMetrics(method).requestSize.record(message.length);
+         if (id != null) { // request expecting a response
+            if (ownPendingRequests.size() >= MAX_PENDING_REQUESTS) {
+               ownPendingRequests.clear(); // the responses to these requests got lost
+            }
+            ownPendingRequests.put(id, new PendingRequest(method, receivedNanos));
+         }
+      } else if (isResponse && id != null) {
+         final var request = otherPendingRequests.remove(id);
+         if (request != null) {
+            final var methodMetrics = getMetrics(request.method);
+            methodMetrics.latency.record((receivedNanos - request.startNanos) / 1_000);
+            methodMetrics.responseSize.record(message.length);
+         }
+      }
+   }
+
+   /**
+    * Writes the collected metrics as JSON to the given file.
+    */
+   public void exportJSON(final Path file) throws IOException {
+      final var export = new LinkedHashMap<String, Object>();
+      for (final var methodMetrics : getMetrics()) {
+         final var entry = new LinkedHashMap<String, Object>();
+         entry.put("count", methodMetrics.requestSize.getCount());
+         entry.put("latencyMicros", toMap(methodMetrics.latency));
+         entry.put("requestBytes", toMap(methodMetrics.requestSize));
+         entry.put("responseBytes", toMap(methodMetrics.responseSize));
+         export.put(methodMetrics.method, entry);
+      }
+      JSON.writeValue(file.toFile(), export);
+   }
+
+   /**
+    * @return the metrics of all methods seen so far sorted by method name
+    */
+   public List<MethodMetrics> getMetrics() {
+      final var result = new ArrayList<>(metrics.values());
+      result.sort((m1, m2) -> m1.method.compareTo(m2.method));
+      return result;
+   }
+
+   private MethodMetrics getMetrics(final String method) {
+      return metrics.computeIfAbsent(method, MethodMetrics::new);
+   }
+
+   public boolean isEnabled() {
+      final var now = System.currentTimeMillis();
+      if (now - settingsRefreshedAt >= SETTINGS_REFRESH_INTERVAL_MS) {
+         settingsRefreshedAt = now;
+         isEnabled = isEnabledSetting.getAsBoolean();
+      }
+      return isEnabled;
+   }
+
+   public Connection newConnection() {
+      return new Connection();
+   }
+
+   public void reset() {
+      metrics.clear();
+   }
+
+   private Map<String, Object> toMap(final Histogram histogram) {
+      final var map = new LinkedHashMap<String, Object>();
+      map.put("count", histogram.getCount());
+      map.put("mean", histogram.getMean());
+      map.put("p50", histogram.getPercentile(50));
+      map.put("p90", histogram.getPercentile(90));
+      map.put("p99", histogram.getPercentile(99));
+      map.put("max", histogram.getMax());
+      return map;
+   }
+}
@@ -0,0 +1,176 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.langserver;
+
+import static net.sf.jstuff.core.validation.NullAnalysisHelper.lateNonNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.TableViewerColumn;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerComparator;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.FileDialog;
+import org.eclipse.ui.part.ViewPart;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.langserver.HaxeLangServerMetrics.MethodMetrics;
+import org.haxe4e.util.Histogram;
+
+import de.sebthom.eclipse.commons.ui.Dialogs;
+
+/**
+ * Shows per-method latency and payload-size percentiles of the communication with the Haxe language servers.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeLangServerMetricsView extends ViewPart {
+
+   /**
+    * This value is configured in plugin.xml
+    */
+   public static final String ID = HaxeLangServerMetricsView.class.getName();
+
+   private static final int REFRESH_INTERVAL_MS = 2_000;
+
+   private final class SortingComparator extends ViewerComparator {
+      Comparator<MethodMetrics> comparator = Comparator.comparingLong((final MethodMetrics m) -> m.latency.getPercentile(90)).reversed();
+
+      @Override
+      public int compare(final @Nullable Viewer viewer, final @Nullable Object e1, final @Nullable Object e2) {
+         return comparator.compare((MethodMetrics) e1, (MethodMetrics) e2);
+      }
+   }
+
+   private static String formatKB(final long bytes) {
+      return String.format("%.1f", bytes / 1024.0);
+   }
+
+   private static String formatMillis(final Histogram latency, final long micros) {
+      return latency.getCount() == 0 ? "" : String.format("%.1f", micros / 1_000.0);
+   }
+
+   private TableViewer table = lateNonNull();
+   private final SortingComparator sorter = new SortingComparator();
+
+   private final Runnable refresher = new Runnable() {
+      @Override
+      public void run() {
+         if (table.getControl().isDisposed())
+            return;
+         refreshTable();
+         table.getControl().getDisplay().timerExec(REFRESH_INTERVAL_MS, this);
+      }
+   };
+
+   private void addColumn(final String title, final int width, final int style, final Function<MethodMetrics, String> text,
+         final Comparator<MethodMetrics> comparator) {
+      final var col = new TableViewerColumn(table, style);
+      col.getColumn().setText(title);
+      col.getColumn().setWidth(width);
+      col.setLabelProvider(new ColumnLabelProvider() {
+         @Override
+         public String getText(final @Nullable Object element) {
+            return text.apply((MethodMetrics) element);
+         }
+      });
+      col.getColumn().addListener(SWT.Selection, ev -> {
+         final var swtTable = table.getTable();
+         if (swtTable.getSortColumn() == col.getColumn()) {
+            swtTable.setSortDirection(swtTable.getSortDirection() == SWT.UP ? SWT.DOWN : SWT.UP);
+         } else {
+            swtTable.setSortColumn(col.getColumn());
+            swtTable.setSortDirection(SWT.UP);
+         }
+         sorter.comparator = swtTable.getSortDirection() == SWT.UP ? comparator : comparator.reversed();
+         table.refresh();
+      });
+   }
+
+   private void addLatencyColumn(final String title, final Function<Histogram, Long> value) {
+      addColumn(title, 80, SWT.RIGHT, m -> formatMillis(m.latency, value.apply(m.latency)), Comparator.comparingLong(m -> value.apply(
+         m.latency)));
+   }
+
+   @Override
+   public void createPartControl(final Composite parent) {
+      table = new TableViewer(parent, SWT.BORDER | SWT.FULL_SELECTION | SWT.V_SCROLL | SWT.H_SCROLL);
+      table.getTable().setHeaderVisible(true);
+      table.getTable().setLinesVisible(true);
+      table.setContentProvider(ArrayContentProvider.getInstance());
+      table.setComparator(sorter);
+
+      addColumn("Method", 250, SWT.NONE, m -> m.method, Comparator.comparing(m -> m.method));
+      addColumn("Count", 60, SWT.RIGHT, m -> String.valueOf(m.requestSize.getCount()), Comparator.comparingLong(m -> m.requestSize
+         .getCount()));
+      addLatencyColumn("p50 (ms)", h -> h.getPercentile(50));
+      addLatencyColumn("p90 (ms)", h -> h.getPercentile(90));
+      addLatencyColumn("p99 (ms)", h -> h.getPercentile(99));
+      addLatencyColumn("Max (ms)", Histogram::getMax);
+      addColumn("Request p50 (KB)", 110, SWT.RIGHT, m -> formatKB(m.requestSize.getPercentile(50)), Comparator.comparingLong(
+         m -> m.requestSize.getPercentile(50)));
+      addColumn("Response p50 (KB)", 110, SWT.RIGHT, m -> formatKB(m.responseSize.getPercentile(50)), Comparator.comparingLong(
+         m -> m.responseSize.getPercentile(50)));
+      addColumn("Response p99 (KB)", 110, SWT.RIGHT, m -> formatKB(m.responseSize.getPercentile(99)), Comparator.comparingLong(
+         m -> m.responseSize.getPercentile(99)));
+
+      final var reset = new Action("Reset Metrics") {
+         @Override
+         public void run() {
+            HaxeLangServerMetrics.INSTANCE.reset();
+            refreshTable();
+         }
+      };
+      final var export = new Action("Export as JSON...") {
+         @Override
+         public void run() {
+            exportJSON();
+         }
+      };
+      final var menu = getViewSite().getActionBars().getMenuManager();
+      menu.add(reset);
+      menu.add(export);
+
+      refresher.run();
+   }
+
+   private void exportJSON() {
+      final var dialog = new FileDialog(table.getControl().getShell(), SWT.SAVE);
+      dialog.setFilterExtensions(new String[] {"*.json"});
+      dialog.setFileName("haxe-langserver-metrics.json");
+      dialog.setOverwrite(true);
+      final var file = dialog.open();
+      if (file == null)
+         return;
+
+      try {
+         HaxeLangServerMetrics.INSTANCE.exportJSON(Path.of(file));
+      } catch (final IOException ex) {
+         Dialogs.showStatus("Export failed", Haxe4EPlugin.status().createError(ex, "Failed to write " + file), true);
+      }
+   }
+
+   private void refreshTable() {
+      setContentDescription(HaxeLangServerMetrics.INSTANCE.isEnabled() //
+            ? "" //
+            : "Metrics collection is disabled. It can be enabled in the Haxe preferences.");
+      table.setInput(HaxeLangServerMetrics.INSTANCE.getMetrics());
+   }
+
+   @Override
+   public void setFocus() {
+      table.getControl().setFocus();
+   }
+}
@@ -0,0 +1,53 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.launch;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.model.buildsystem.HaxeBuildFile;
+
+import net.sf.jstuff.core.io.Processes;
+
+/**
+ * Runs the HashLink bytecode output of a build file with <code>hl --hot-reload</code>, so recompiled functions are reloaded into the
+ * running program instead of restarting it. The program applies the reloaded code when it calls <code>hl.Api.checkReload()</code>,
+ * which frameworks such as Heaps do once per frame.
+ *
+ * @param compilerArgs the arguments of the compilation unit generating the <code>.hl</code> file without post-build commands, as
+ *           these usually start the program
+ * @param output the <code>.hl</code> file as specified in the build file, i.e. relative to the working directory
+ *
+ * @author Sebastian Thomschke
+ */
+record HashLinkHotReload(List<String> compilerArgs, String output) {
+
+   /**
+    * @return null if the given build file does not generate HashLink bytecode
+    */
+   static @Nullable HashLinkHotReload of(final HaxeBuildFile buildFile) {
+      try {
+         for (final var unit : buildFile.getCompilationUnits()) {
+            for (int i = 0; i < unit.size() - 1; i++) {
+               final var arg = unit.get(i);
+               final var output = unit.get(i + 1);
+               // HashLink/C output (.c) is compiled natively and does not support hot reloading
+               if (("-hl".equals(arg) || "--hl".equals(arg)) && output.endsWith(".hl"))
+                  return new HashLinkHotReload(HaxeBuildFile.withoutPostBuildCommands(unit), output);
+            }
+         }
+      } catch (final RuntimeException ex) {
+         Haxe4EPlugin.log().error(ex);
+      }
+      return null;
+   }
+
+   Processes.Builder getProgramProcessBuilder() {
+      return Processes.builder("hl").withArgs("--hot-reload", output);
+   }
+}
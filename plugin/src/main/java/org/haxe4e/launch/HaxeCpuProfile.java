@@ -0,0 +1,261 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.launch;
+
+import static net.sf.jstuff.core.validation.NullAnalysisHelper.asNonNull;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Call tree and hot methods of a sampling CPU profile in the <code>.cpuprofile</code> format written by
+ * <code>node --cpu-prof</code>.
+ * <p>
+ * Frames of generated code are mapped back to the <code>.hx</code> sources via a resolver, e.g. based on {@link SourceMap}s.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeCpuProfile {
+
+   /**
+    * A function of the generated code as reported by the profiler.
+    *
+    * @param url location of the generated code, e.g. <code>file:///home/user/project/bin/main.js</code>
+    * @param line 0-based line of the generated code
+    * @param column 0-based column of the generated code
+    */
+   public record CallFrame(String functionName, String url, int line, int column) {
+   }
+
+   /**
+    * @param file source file or null if unknown, e.g. for native code
+    * @param line 1-based line number or <code>-1</code> if unknown
+    */
+   public record SourceLocation(@Nullable String file, int line) {
+      public static final SourceLocation UNKNOWN = new SourceLocation(null, -1);
+   }
+
+   /**
+    * A node of the call tree. Calls of the same function at the same source location from the same parent are merged.
+    */
+   public static final class Frame {
+      public final String name;
+      public final SourceLocation location;
+      public final List<Frame> children = new ArrayList<>();
+      private final Map<Object, Frame> childrenByKey = new HashMap<>();
+      long selfMicros;
+      long totalMicros;
+
+      Frame(final String name, final SourceLocation location) {
+         this.name = name;
+         this.location = location;
+      }
+
+      Frame getOrAddChild(final String name, final SourceLocation location) {
+         return childrenByKey.computeIfAbsent(List.of(name, location), k -> {
+            final var child = new Frame(name, location);
+            children.add(child);
+            return child;
+         });
+      }
+
+      public long getSelfMicros() {
+         return selfMicros;
+      }
+
+      public long getTotalMicros() {
+         return totalMicros;
+      }
+
+      @Override
+      public String toString() {
+         return name + " (" + totalMicros + "µs)";
+      }
+   }
+
+   @SuppressWarnings("unused")
+   private static final class CpuProfileJSON {
+      static final class Node {
+         public int id;
+         public CallFrameJSON callFrame = new CallFrameJSON();
+         public int @Nullable [] children;
+      }
+
+      static final class CallFrameJSON {
+         public String functionName = "";
+         public String url = "";
+         public int lineNumber = -1;
+         public int columnNumber = -1;
+      }
+
+      public List<Node> nodes = List.of();
+      public long startTime;
+      public long endTime;
+      public int[] samples = {};
+      public long[] timeDeltas = {};
+   }
+
+   private static final ObjectMapper JSON = new ObjectMapper() //
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+   public static HaxeCpuProfile load(final Path cpuProfileFile, final Function<CallFrame, SourceLocation> resolver) throws IOException {
+      return parse(JSON.readValue(cpuProfileFile.toFile(), CpuProfileJSON.class), resolver);
+   }
+
+   public static HaxeCpuProfile parse(final String json, final Function<CallFrame, SourceLocation> resolver) throws IOException {
+      return parse(JSON.readValue(json, CpuProfileJSON.class), resolver);
+   }
+
+   private static HaxeCpuProfile parse(final CpuProfileJSON json, final Function<CallFrame, SourceLocation> resolver) {
+      final var nodesById = new HashMap<Integer, CpuProfileJSON.Node>();
+      final var parentIds = new HashMap<Integer, Integer>();
+      for (final var node : json.nodes) {
+         nodesById.put(node.id, node);
+         final var children = node.children;
+         if (children != null) {
+            for (final var childId : children) {
+               parentIds.put(childId, node.id);
+            }
+         }
+      }
+
+      // the duration of a sample is the time until the next sample, see timeDeltas
+      final var selfMicrosById = new HashMap<Integer, Long>();
+      final var samples = json.samples;
+      final var timeDeltas = json.timeDeltas;
+      long timestamp = json.startTime;
+      for (int i = 0; i < samples.length; i++) {
+         timestamp += i < timeDeltas.length ? timeDeltas[i] : 0;
+         final long duration = i + 1 < timeDeltas.length ? timeDeltas[i + 1] : Math.max(0, json.endTime - timestamp);
+         selfMicrosById.merge(samples[i], duration, Long::sum);
+      }
+
+      final var root = new Frame("(root)", SourceLocation.UNKNOWN);
+      final var locationsByCallFrame = new HashMap<CallFrame, SourceLocation>();
+      final var hotMethodsByKey = new LinkedHashMap<Object, Frame>();
+      for (final var entry : selfMicrosById.entrySet()) {
+         final var selfMicros = entry.getValue();
+         if (selfMicros <= 0) {
+            continue;
+         }
+
+         // collect the call stack of the sampled node, outermost frame first
+         final var stack = new ArrayList<CpuProfileJSON.Node>();
+         for (Integer id = entry.getKey(); id != null; id = parentIds.get(id)) {
+            final var node = nodesById.get(id);
+            if (node == null) {
+               break;
+            }
+            stack.add(0, node);
+         }
+
+         var frame = root;
+         root.totalMicros += selfMicros;
+         for (final var node : stack) {
+            final var cf = node.callFrame;
+            if (node == stack.get(0) && "(root)".equals(cf.functionName)) {
+               continue;
+            }
+            final var callFrame = new CallFrame(cf.functionName.isEmpty() ? "(anonymous)" : cf.functionName, cf.url, cf.lineNumber,
+               cf.columnNumber);
+            final var location = locationsByCallFrame.computeIfAbsent(callFrame, resolver);
+            frame = frame.getOrAddChild(callFrame.functionName(), location);
+            frame.totalMicros += selfMicros;
+         }
+         frame.selfMicros += selfMicros;
+
+         final var leaf = frame;
+         hotMethodsByKey.computeIfAbsent(List.of(leaf.name, leaf.location), k -> new Frame(leaf.name, leaf.location)).selfMicros +=
+               selfMicros;
+      }
+
+      sort(root);
+      final var hotMethods = new ArrayList<>(hotMethodsByKey.values());
+      hotMethods.forEach(f -> f.totalMicros = f.selfMicros);
+      hotMethods.sort(Comparator.comparingLong(Frame::getSelfMicros).reversed());
+      return new HaxeCpuProfile(root, hotMethods);
+   }
+
+   private static void sort(final Frame frame) {
+      frame.children.sort(Comparator.comparingLong(Frame::getTotalMicros).reversed());
+      frame.children.forEach(HaxeCpuProfile::sort);
+   }
+
+   /**
+    * @return a resolver that maps frames of generated JavaScript code to the Haxe sources using the source maps next to the generated
+    *         files, i.e. <code>main.js.map</code> for <code>main.js</code>
+    */
+   public static Function<CallFrame, SourceLocation> sourceMapResolver() {
+      final var sourceMaps = new HashMap<String, @Nullable SourceMap>();
+      return callFrame -> {
+         if (!callFrame.url().startsWith("file:") || callFrame.line() < 0)
+            return SourceLocation.UNKNOWN;
+
+         final Path generatedFile;
+         try {
+            generatedFile = Path.of(URI.create(callFrame.url()));
+         } catch (final IllegalArgumentException ex) {
+            return SourceLocation.UNKNOWN;
+         }
+
+         final var sourceMap = sourceMaps.computeIfAbsent(callFrame.url(), url -> {
+            final var mapFile = generatedFile.resolveSibling(generatedFile.getFileName() + ".map");
+            try {
+               return mapFile.toFile().isFile() ? SourceMap.load(mapFile) : null;
+            } catch (final IOException | RuntimeException ex) {
+               return null;
+            }
+         });
+         if (sourceMap == null)
+            return new SourceLocation(generatedFile.toString(), callFrame.line() + 1);
+
+         final var location = sourceMap.lookup(callFrame.line(), Math.max(0, callFrame.column()));
+         if (location == null)
+            return new SourceLocation(generatedFile.toString(), callFrame.line() + 1);
+
+         final var source = location.source().startsWith("file://") //
+               ? Path.of(URI.create(location.source()))
+               : asNonNull(generatedFile.getParent()).resolve(location.source()).normalize();
+         return new SourceLocation(source.toString(), location.line());
+      };
+   }
+
+   private final Frame root;
+   private final List<Frame> hotMethods;
+
+   private HaxeCpuProfile(final Frame root, final List<Frame> hotMethods) {
+      this.root = root;
+      this.hotMethods = hotMethods;
+   }
+
+   /**
+    * @return the functions sorted by the time spent in the function itself, i.e. excluding the functions it called
+    */
+   public List<Frame> getHotMethods() {
+      return hotMethods;
+   }
+
+   /**
+    * @return the root of the call tree, its total time is the sampled time of the profile
+    */
+   public Frame getRoot() {
+      return root;
+   }
+}
@@ -0,0 +1,213 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.launch;
+
+import static net.sf.jstuff.core.validation.NullAnalysisHelper.lateNonNull;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.jface.layout.GridLayoutFactory;
+import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.TreeViewerColumn;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Combo;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.ui.part.ViewPart;
+import org.haxe4e.builder.HaxeSourceLink;
+import org.haxe4e.launch.HaxeCpuProfile.Frame;
+import org.haxe4e.launch.HaxeProfiles.Profile;
+
+import de.sebthom.eclipse.commons.ui.UI;
+
+/**
+ * Shows the CPU profiles collected by profile launches either as call tree, i.e. the tree form of a flame graph, or as hot methods
+ * list. Double-clicking a frame opens its <code>.hx</code> source location.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeProfileView extends ViewPart {
+
+   /**
+    * This value is configured in plugin.xml
+    */
+   public static final String ID = HaxeProfileView.class.getName();
+
+   private static final String MODE_CALL_TREE = "Call Tree";
+   private static final String MODE_HOT_METHODS = "Hot Methods";
+
+   private static final class FrameContentProvider implements ITreeContentProvider {
+      @Override
+      public Object[] getChildren(final Object parentElement) {
+         return ((Frame) parentElement).children.toArray();
+      }
+
+      @Override
+      public Object[] getElements(final @Nullable Object inputElement) {
+         return inputElement instanceof final List<?> list ? list.toArray() : new Object[0];
+      }
+
+      @Override
+      public @Nullable Object getParent(final Object element) {
+         return null;
+      }
+
+      @Override
+      public boolean hasChildren(final Object element) {
+         return !((Frame) element).children.isEmpty();
+      }
+   }
+
+   private Combo cmbProfile = lateNonNull();
+   private Combo cmbMode = lateNonNull();
+   private TreeViewer tree = lateNonNull();
+
+   private List<Profile> profiles = List.of();
+
+   private final Runnable onProfilesChanged = () -> UI.runAsync(() -> {
+      if (!cmbProfile.isDisposed()) {
+         refreshProfiles();
+      }
+   });
+
+   private void addColumn(final String title, final int width, final int style, final Function<Frame, String> text) {
+      final var col = new TreeViewerColumn(tree, style);
+      col.getColumn().setText(title);
+      col.getColumn().setWidth(width);
+      col.setLabelProvider(new ColumnLabelProvider() {
+         @Override
+         public String getText(final @Nullable Object element) {
+            return text.apply((Frame) element);
+         }
+      });
+   }
+
+   @Override
+   public void createPartControl(final Composite parent) {
+      parent.setLayout(GridLayoutFactory.fillDefaults().numColumns(4).create());
+
+      new Label(parent, SWT.NONE).setText("Profile:");
+      cmbProfile = new Combo(parent, SWT.READ_ONLY);
+      cmbProfile.setLayoutData(GridDataFactory.fillDefaults().grab(true, false).create());
+      cmbProfile.addListener(SWT.Selection, ev -> refreshTree());
+
+      new Label(parent, SWT.NONE).setText("View:");
+      cmbMode = new Combo(parent, SWT.READ_ONLY);
+      cmbMode.setItems(MODE_CALL_TREE, MODE_HOT_METHODS);
+      cmbMode.select(0);
+      cmbMode.addListener(SWT.Selection, ev -> refreshTree());
+
+      tree = new TreeViewer(parent, SWT.BORDER | SWT.FULL_SELECTION | SWT.V_SCROLL | SWT.H_SCROLL);
+      tree.getTree().setLayoutData(GridDataFactory.fillDefaults().span(4, 1).grab(true, true).create());
+      tree.getTree().setHeaderVisible(true);
+      tree.getTree().setLinesVisible(true);
+      tree.setContentProvider(new FrameContentProvider());
+      tree.addDoubleClickListener(ev -> {
+         if (ev.getSelection() instanceof final IStructuredSelection sel && sel.getFirstElement() instanceof final Frame frame) {
+            openSource(frame);
+         }
+      });
+
+      addColumn("Function", 350, SWT.NONE, frame -> frame.name);
+      addColumn("Total (ms)", 90, SWT.RIGHT, frame -> String.format("%.1f", frame.getTotalMicros() / 1_000.0));
+      addColumn("Self (ms)", 90, SWT.RIGHT, frame -> String.format("%.1f", frame.getSelfMicros() / 1_000.0));
+      addColumn("%", 60, SWT.RIGHT, frame -> {
+         final var profile = getSelectedProfile();
+         final var sampled = profile == null ? 0 : profile.profile().getRoot().getTotalMicros();
+         final var micros = MODE_HOT_METHODS.equals(cmbMode.getText()) ? frame.getSelfMicros() : frame.getTotalMicros();
+         return sampled == 0 ? "" : String.format("%.1f", micros * 100.0 / sampled);
+      });
+      addColumn("Source", 350, SWT.NONE, frame -> {
+         final var file = frame.location.file();
+         return file == null ? "" : file + ":" + frame.location.line();
+      });
+
+      final var clearProfiles = new Action("Clear Profiles") {
+         @Override
+         public void run() {
+            HaxeProfiles.INSTANCE.clear();
+         }
+      };
+      getViewSite().getActionBars().getMenuManager().add(clearProfiles);
+
+      HaxeProfiles.INSTANCE.addListener(onProfilesChanged);
+      refreshProfiles();
+   }
+
+   @Override
+   public void dispose() {
+      HaxeProfiles.INSTANCE.removeListener(onProfilesChanged);
+      super.dispose();
+   }
+
+   private @Nullable Profile getSelectedProfile() {
+      final var idx = cmbProfile.getSelectionIndex();
+      return idx < 0 ? null : profiles.get(idx);
+   }
+
+   private void openSource(final Frame frame) {
+      final var file = frame.location.file();
+      if (file == null)
+         return;
+      try {
+         final var link = HaxeSourceLink.of(Path.of(file), frame.location.line());
+         if (link != null) {
+            link.linkActivated();
+         }
+      } catch (final InvalidPathException ex) {
+         // not a local file
+      }
+   }
+
+   private void refreshProfiles() {
+      final var newestFirst = new ArrayList<>(HaxeProfiles.INSTANCE.getProfiles());
+      Collections.reverse(newestFirst);
+      profiles = newestFirst;
+
+      cmbProfile.removeAll();
+      final var dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+      for (final var profile : profiles) {
+         cmbProfile.add(dateFormat.format(new Date(profile.timestamp())) + " - " + profile.label() //
+               + String.format(" (%.3f s sampled)", profile.profile().getRoot().getTotalMicros() / 1_000_000.0));
+      }
+      if (!profiles.isEmpty()) {
+         cmbProfile.select(0);
+      }
+      refreshTree();
+      cmbProfile.getParent().layout();
+   }
+
+   private void refreshTree() {
+      final var profile = getSelectedProfile();
+      if (profile == null) {
+         tree.setInput(List.of());
+      } else if (MODE_HOT_METHODS.equals(cmbMode.getText())) {
+         tree.setInput(profile.profile().getHotMethods());
+      } else {
+         tree.setInput(profile.profile().getRoot().children);
+         tree.expandToLevel(2);
+      }
+   }
+
+   @Override
+   public void setFocus() {
+      tree.getControl().setFocus();
+   }
+}
@@ -0,0 +1,72 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.launch;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The CPU profiles collected by profile launches of the current session, shown by the {@link HaxeProfileView}.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class HaxeProfiles {
+
+   /**
+    * @param timestamp epoch millis of the program's exit
+    * @param label the launch configuration name
+    * @param file the profile file written by the profiler
+    */
+   public record Profile(long timestamp, String label, Path file, HaxeCpuProfile profile) {
+   }
+
+   public static final HaxeProfiles INSTANCE = new HaxeProfiles();
+
+   private static final int MAX_PROFILES = 20;
+
+   private final List<Profile> profiles = new ArrayList<>();
+   private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+   private HaxeProfiles() {
+   }
+
+   public void add(final Profile profile) {
+      synchronized (profiles) {
+         profiles.add(profile);
+         while (profiles.size() > MAX_PROFILES) {
+            profiles.remove(0);
+         }
+      }
+      listeners.forEach(Runnable::run);
+   }
+
+   public void addListener(final Runnable listener) {
+      listeners.add(listener);
+   }
+
+   public void clear() {
+      synchronized (profiles) {
+         profiles.clear();
+      }
+      listeners.forEach(Runnable::run);
+   }
+
+   /**
+    * @return the collected profiles, oldest first
+    */
+   public List<Profile> getProfiles() {
+      synchronized (profiles) {
+         return List.copyOf(profiles);
+      }
+   }
+
+   public void removeListener(final Runnable listener) {
+      listeners.remove(listener);
+   }
+}
@@ -0,0 +1,313 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.launch;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.Launch;
+import org.eclipse.debug.core.model.IProcess;
+import org.eclipse.jdt.annotation.Nullable;
+import org.haxe4e.Constants;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.localization.Messages;
+import org.haxe4e.model.buildsystem.BuildFile;
+import org.haxe4e.prefs.HaxeProjectPreference;
+
+/**
+ * Launch of the "watch" mode. The program is compiled and run, and recompiled and restarted whenever a source file or build file of
+ * the launched build file changes.
+ * <p>
+ * Changes reported in quick succession (e.g. by "Save All", refactorings or VCS checkouts) are collected during the project's auto
+ * build delay and result in a single restart. The launch remains active between runs until it is terminated.
+ * <p>
+ * In hot reload mode the program is compiled by a separate compiler run before it is started, and on changes only recompiled while
+ * the program keeps running and reloads the changed code itself, see {@link HashLinkHotReload}.
+ *
+ * @author Sebastian Thomschke
+ */
+final class HaxeWatchLaunch extends Launch implements IResourceChangeListener {
+
+   @FunctionalInterface
+   interface ProgramStarter {
+      Process start() throws IOException;
+   }
+
+   private static final int TERMINATION_TIMEOUT_MS = 5_000;
+
+   private final Job restartJob = new Job("Restarting watched Haxe program...") {
+      @Override
+      protected IStatus run(final IProgressMonitor monitor) {
+         restart(monitor);
+         return Status.OK_STATUS;
+      }
+   };
+
+   private volatile @Nullable BuildFile buildFile;
+   private volatile Set<IFile> buildFiles = Set.of();
+   private volatile Set<IPath> sourcePaths = Set.of();
+   private volatile boolean isWatching;
+   private @Nullable IProcess program;
+   private @Nullable Process programProcess;
+   private @Nullable ProgramStarter programStarter;
+   private @Nullable ProgramStarter hotReloadCompiler;
+   private @Nullable IProcess compilerProcess;
+
+   HaxeWatchLaunch(final ILaunchConfiguration config, final String mode) {
+      super(config, mode, null);
+      restartJob.setSystem(true);
+   }
+
+   @Override
+   public boolean canTerminate() {
+      return isWatching || super.canTerminate();
+   }
+
+   @Override
+   public boolean isTerminated() {
+      return !isWatching && super.isTerminated();
+   }
+
+   /**
+    * @return true if the given delta contains a change of a watched file that requires a restart
+    */
+   private boolean isRelevant(final IResourceDelta delta, final BuildFile buildFile) throws CoreException {
+      final var isRelevant = new boolean[1];
+      delta.accept(child -> {
+         if (isRelevant[0])
+            return false;
+
+         final var res = child.getResource();
+         if (res.getType() == IResource.ROOT)
+            return true;
+         if (res.getType() == IResource.PROJECT)
+            return res.equals(buildFile.getProject());
+         if (res.isDerived())
+            return false; // e.g. build outputs written into a source folder
+
+         if (res instanceof final IFile file) {
+            if (child.getKind() == IResourceDelta.CHANGED && (child.getFlags() & IResourceDelta.CONTENT) == 0)
+               return false; // e.g. marker changes
+
+            if (buildFiles.contains(file)) {
+               reloadBuildFile(buildFile);
+               isRelevant[0] = true;
+            } else if (Constants.HAXE_FILE_EXTENSION.equals(file.getFileExtension())) {
+               final var path = file.getProjectRelativePath();
+               isRelevant[0] = sourcePaths.stream().anyMatch(sourcePath -> sourcePath.isPrefixOf(path));
+            }
+            return false;
+         }
+         return true;
+      });
+      return isRelevant[0];
+   }
+
+   @Override
+   public void launchRemoved(final ILaunch launch) {
+      if (this == launch) {
+         stopWatching();
+      }
+      super.launchRemoved(launch);
+   }
+
+   /**
+    * Re-reads the watched build files and source paths, e.g. after the build file was modified.
+    */
+   private void reloadBuildFile(final BuildFile buildFile) {
+      final var project = buildFile.getProject();
+      try {
+         final var reloaded = HaxeProjectPreference.get(project).getBuildSystem().toBuildFile(buildFile.location);
+         buildFiles = reloaded.getBuildFiles();
+         sourcePaths = reloaded.getSourcePaths();
+         this.buildFile = reloaded;
+      } catch (final RuntimeException ex) {
+         // keep watching the previous paths, the compiler reports the problem of the build file
+         Haxe4EPlugin.log().debug(ex);
+      }
+   }
+
+   @Override
+   public void resourceChanged(final IResourceChangeEvent event) {
+      final var buildFile = this.buildFile;
+      final var delta = event.getDelta();
+      if (!isWatching || buildFile == null || delta == null)
+         return;
+
+      try {
+         if (isRelevant(delta, buildFile)) {
+            // a pending restart is postponed, so a burst of changes results in a single restart
+            restartJob.cancel();
+            restartJob.schedule(HaxeProjectPreference.get(buildFile.getProject()).getAutoBuildDelay());
+         }
+      } catch (final CoreException ex) {
+         Haxe4EPlugin.log().error(ex);
+      }
+   }
+
+   /**
+    * Terminates the running program, if any, and compiles and runs the program again. In hot reload mode a running program is kept
+    * alive and only the program is recompiled.
+    */
+   private synchronized void restart(final IProgressMonitor monitor) {
+      final var programStarter = this.programStarter;
+      if (!isWatching || programStarter == null)
+         return;
+
+      final var hotReloadCompiler = this.hotReloadCompiler;
+      final var previous = program;
+      if (hotReloadCompiler != null && previous != null && !previous.isTerminated()) {
+         // the running program reloads the changed code from the recompiled output
+         compile(hotReloadCompiler, monitor);
+         return;
+      }
+
+      if (previous != null) {
+         if (!previous.isTerminated()) {
+            try {
+               // e.g. programs started by the compiler via --cmd, which would otherwise survive the compiler process
+               final var previousProcess = programProcess;
+               if (previousProcess != null) {
+                  previousProcess.descendants().forEach(ProcessHandle::destroy);
+               }
+               previous.terminate();
+               // wait for the program to release files and ports before it is started again
+               waitFor(previous, TERMINATION_TIMEOUT_MS, monitor);
+            } catch (final DebugException ex) {
+               Haxe4EPlugin.log().error(ex);
+            }
+         }
+         removeProcess(previous);
+      }
+
+      if (!isWatching || monitor.isCanceled())
+         return;
+
+      try {
+         if (hotReloadCompiler != null) {
+            if (!compile(hotReloadCompiler, monitor))
+               return;
+            final var process = programStarter.start();
+            programProcess = process;
+            program = DebugPlugin.newProcess(this, process, Messages.Launch_HashLinkProgram);
+         } else {
+            final var process = programStarter.start();
+            programProcess = process;
+            program = DebugPlugin.newProcess(this, process, Messages.Label_Haxe_Terminal);
+         }
+      } catch (final IOException ex) {
+         program = null;
+         programProcess = null;
+         Haxe4EPlugin.log().error(ex, Messages.Launch_CouldNotRunHaxe);
+      }
+   }
+
+   /**
+    * Runs the given compiler and waits for it to finish.
+    *
+    * @return true if the compilation succeeded
+    */
+   private boolean compile(final ProgramStarter compiler, final IProgressMonitor monitor) {
+      final var previous = compilerProcess;
+      if (previous != null) {
+         removeProcess(previous);
+      }
+
+      final IProcess process;
+      try {
+         process = DebugPlugin.newProcess(this, compiler.start(), Messages.Launch_HashLinkCompiler);
+      } catch (final IOException ex) {
+         Haxe4EPlugin.log().error(ex, Messages.Launch_CouldNotRunHaxe);
+         return false;
+      }
+      compilerProcess = process;
+
+      try {
+         if (!waitFor(process, Integer.MAX_VALUE, monitor)) {
+            process.terminate();
+            return false;
+         }
+         return process.getExitValue() == 0;
+      } catch (final DebugException ex) {
+         Haxe4EPlugin.log().error(ex);
+         return false;
+      }
+   }
+
+   /**
+    * Runs the program and starts watching the given build file.
+    *
+    * @param hotReloadCompiler if not null, the program is compiled by it before being started and on changes only recompiled while
+    *           the program is running
+    */
+   void start(final BuildFile buildFile, final ProgramStarter programStarter, final @Nullable ProgramStarter hotReloadCompiler) {
+      this.programStarter = programStarter;
+      this.hotReloadCompiler = hotReloadCompiler;
+      this.buildFile = buildFile;
+      reloadBuildFile(buildFile);
+      isWatching = true;
+      ResourcesPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+      restartJob.schedule();
+   }
+
+   private void stopWatching() {
+      if (!isWatching)
+         return;
+      isWatching = false;
+      ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+      restartJob.cancel();
+   }
+
+   @Override
+   public void terminate() throws DebugException {
+      final var wasTerminated = super.isTerminated();
+      stopWatching();
+      final var programProcess = this.programProcess;
+      if (programProcess != null) {
+         programProcess.descendants().forEach(ProcessHandle::destroy);
+      }
+      super.terminate();
+      if (wasTerminated) {
+         // no process is running that would report the termination of the launch
+         fireTerminate();
+      }
+   }
+
+   /**
+    * @return false if the given process did not terminate in time or waiting was canceled
+    */
+   private boolean waitFor(final IProcess process, final int timeoutMS, final IProgressMonitor monitor) {
+      final var deadline = System.currentTimeMillis() + timeoutMS;
+      while (!process.isTerminated()) {
+         if (monitor.isCanceled() || System.currentTimeMillis() > deadline)
+            return false;
+         try {
+            Thread.sleep(50);
+         } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+         }
+      }
+      return true;
+   }
+}
@@ -10,16 +10,20 @@
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
@@ -30,12 +34,19 @@
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.lsp4e.debug.DSPPlugin;
 import org.eclipse.lsp4e.debug.launcher.DSPLaunchDelegate.DSPLaunchDelegateLaunchBuilder;
+import org.eclipse.ui.PartInitException;
 import org.eclipse.wildwebdeveloper.embedder.node.NodeJSManager;
 import org.haxe4e.Constants;
 import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.builder.HaxeBuildOutputs;
+import org.haxe4e.builder.HaxeBuilder;
+import org.haxe4e.builder.HaxeCompilationServer;
 import org.haxe4e.localization.Messages;
+import org.haxe4e.model.HaxeSDK;
 import org.haxe4e.model.buildsystem.BuildFile;
 import org.haxe4e.model.buildsystem.BuildSystem;
+import org.haxe4e.model.buildsystem.HaxeBuildFile;
+import org.haxe4e.model.buildsystem.LixVirtualBuildFile;
 import org.haxe4e.prefs.HaxeProjectPreference;
 import org.haxe4e.util.TreeBuilder;
 
@@ -43,6 +54,8 @@
 import de.sebthom.eclipse.commons.ui.Dialogs;
 import de.sebthom.eclipse.commons.ui.UI;
 import net.sf.jstuff.core.Strings;
+import net.sf.jstuff.core.SystemUtils;
+import net.sf.jstuff.core.io.Processes;
 
 /**
  * This class is registered via the plugin.xml
@@ -147,21 +160,125 @@ public void launch(final ILaunchConfiguration config, final String mode, final I
 
          case ILaunchManager.RUN_MODE:
             try {
-               final var proc = haxeSDK.getCompilerProcessBuilder(!appendEnvVars) //
-                  .withArg(hxmlFilePath) //
+               final Processes.Builder processBuilder;
+               final var postBuildCommands = config.getAttribute(Constants.LAUNCH_ATTR_REUSE_BUILD_OUTPUT, false) //
+                     ? getPostBuildCommandsIfUpToDate(hxmlFile, haxeSDK, monitor == null ? new NullProgressMonitor() : monitor)
+                     : null;
+               if (postBuildCommands == null) {
+                  processBuilder = getCompilerProcessBuilder(haxeSDK, project, hxmlFilePath, appendEnvVars, //
+                     config.getAttribute(Constants.LAUNCH_ATTR_USE_COMPILATION_SERVER, false));
+               } else if (postBuildCommands.isEmpty()) {
+                  Haxe4EPlugin.log().info("Build output of [{0}] is up-to-date, nothing to run.", hxmlFile.getProjectRelativePath());
+                  return;
+               } else {
+                  Haxe4EPlugin.log().debug("Build output of [{0}] is up-to-date, skipping compilation.", hxmlFile.getProjectRelativePath());
+                  processBuilder = getShellProcessBuilder(String.join(" && ", postBuildCommands)) //
+                     .withEnvironment(env -> {
+                        if (!appendEnvVars) {
+                           env.clear();
+                        }
+                        haxeSDK.configureEnvVars(env);
+                     });
+               }
+
+               final var proc = processBuilder //
                   .withEnvironment(env -> env.putAll(envVars)) //
                   .withWorkingDirectory(workdir) //
-                  .onExit(process -> {
-                     try {
-                        RefreshUtil.refreshResources(config, monitor);
-                     } catch (final CoreException e) {
-                        Haxe4EPlugin.log().error(e);
+                  .onExit(process -> refreshResources(config, hxmlFile, workdir)) //
+                  .start();
+               launch.addProcess(DebugPlugin.newProcess(launch, proc.getProcess(), Messages.Label_Haxe_Terminal));
+            } catch (final IOException ex) {
+               Dialogs.showStatus(Messages.Launch_CouldNotRunHaxe, Haxe4EPlugin.status().createError(ex), true);
+            }
+            return;
+
+         case ILaunchManager.PROFILE_MODE:
+            final var profiling = hxmlFile instanceof final HaxeBuildFile haxeBuildFile ? NodeCpuProfiling.of(haxeBuildFile) : null;
+            if (profiling == null) {
+               Dialogs.showError(Messages.Launch_ProfilingNotSupported, Messages.Launch_ProfilingNotSupported_Descr);
+               return;
+            }
+            try {
+               final var compiler = getCompilerProcessBuilder(haxeSDK, project, profiling.compilerArgs(), appendEnvVars, //
+                  config.getAttribute(Constants.LAUNCH_ATTR_USE_COMPILATION_SERVER, false)) //
+                     .withEnvironment(env -> env.putAll(envVars)) //
+                     .withWorkingDirectory(workdir) //
+                     .start() //
+                     .getProcess();
+               launch.addProcess(DebugPlugin.newProcess(launch, compiler, Messages.Label_Haxe_Terminal));
+               while (!compiler.waitFor(100, TimeUnit.MILLISECONDS)) {
+                  if (monitor != null && monitor.isCanceled()) {
+                     compiler.destroy();
+                     return;
+                  }
+               }
+               if (compiler.exitValue() != 0)
+                  return;
+
+               final var profileDir = Haxe4EPlugin.get().getStateLocation().toFile().toPath() //
+                  .resolve("profiles") //
+                  .resolve(String.valueOf(System.currentTimeMillis()));
+               Files.createDirectories(profileDir);
+               final var proc = profiling.getProgramProcessBuilder(profileDir) //
+                  .withEnvironment(env -> {
+                     if (!appendEnvVars) {
+                        env.clear();
                      }
+                     env.putAll(envVars);
                   }) //
+                  .withWorkingDirectory(workdir) //
+                  .onExit(process -> collectProfile(config.getName(), profileDir)) //
                   .start();
-               launch.addProcess(DebugPlugin.newProcess(launch, proc.getProcess(), Messages.Label_Haxe_Terminal));
+               launch.addProcess(DebugPlugin.newProcess(launch, proc.getProcess(), Messages.Launch_ProfiledProgram));
             } catch (final IOException ex) {
                Dialogs.showStatus(Messages.Launch_CouldNotRunHaxe, Haxe4EPlugin.status().createError(ex), true);
+            } catch (final InterruptedException ex) {
+               Thread.currentThread().interrupt();
+            }
+            return;
+
+         case Constants.LAUNCH_MODE_WATCH:
+            final IProject watchedProject = project;
+            final HaxeSDK watchedHaxeSDK = haxeSDK;
+            final var useHotReload = config.getAttribute(Constants.LAUNCH_ATTR_HASHLINK_HOT_RELOAD, false);
+            final var hotReload = useHotReload && hxmlFile instanceof final HaxeBuildFile haxeBuildFile //
+                  ? HashLinkHotReload.of(haxeBuildFile)
+                  : null;
+            if (hotReload == null) {
+               if (useHotReload) {
+                  Haxe4EPlugin.log().warn("Build file [{0}] does not generate HashLink bytecode, restarting the program on changes.", //
+                     hxmlFile.getProjectRelativePath());
+               }
+               // programs started by the compiler (--run, --interp, --cmd) would run inside the compilation server where restarts
+               // cannot terminate them and their output is not shown in the launch console
+               final var useCompilationServer = config.getAttribute(Constants.LAUNCH_ATTR_USE_COMPILATION_SERVER, false)
+                     && !isProgramRunByCompiler(hxmlFile);
+               ((HaxeWatchLaunch) launch).start(hxmlFile, () -> getCompilerProcessBuilder(watchedHaxeSDK, watchedProject, hxmlFilePath,
+                  appendEnvVars, useCompilationServer) //
+                     .withEnvironment(env -> env.putAll(envVars)) //
+                     .withWorkingDirectory(workdir) //
+                     .onExit(process -> refreshResources(config, hxmlFile, workdir)) //
+                     .start() //
+                     .getProcess(), null);
+            } else {
+               final HashLinkHotReload hashLink = hotReload;
+               ((HaxeWatchLaunch) launch).start(hxmlFile, () -> hashLink.getProgramProcessBuilder() //
+                  .withEnvironment(env -> {
+                     if (!appendEnvVars) {
+                        env.clear();
+                     }
+                     watchedHaxeSDK.configureEnvVars(env);
+                     env.putAll(envVars);
+                  }) //
+                  .withWorkingDirectory(workdir) //
+                  .start() //
+                  .getProcess(), //
+                  () -> getCompilerProcessBuilder(watchedHaxeSDK, watchedProject, hashLink.compilerArgs(), appendEnvVars, true) //
+                     .withEnvironment(env -> env.putAll(envVars)) //
+                     .withWorkingDirectory(workdir) //
+                     .onExit(process -> refreshResources(config, hxmlFile, workdir)) //
+                     .start() //
+                     .getProcess());
             }
             return;
 
@@ -169,4 +286,137 @@ public void launch(final ILaunchConfiguration config, final String mode, final I
             UI.run(() -> MessageDialog.openError(null, "Unsupported launch mode", "Launch mode [" + mode + "] is not supported."));
       }
    }
+
+   /**
+    * Loads the CPU profile written by the profiled program on exit and shows it in the {@link HaxeProfileView}.
+    */
+   private void collectProfile(final String label, final Path profileDir) {
+      try {
+         final var profileFile = NodeCpuProfiling.findProfile(profileDir);
+         if (profileFile == null) {
+            Haxe4EPlugin.log().warn("No CPU profile was written to [{0}].", profileDir.toString());
+            return;
+         }
+         final var profile = HaxeCpuProfile.load(profileFile, HaxeCpuProfile.sourceMapResolver());
+         HaxeProfiles.INSTANCE.add(new HaxeProfiles.Profile(System.currentTimeMillis(), label, profileFile, profile));
+         UI.run(() -> {
+            try {
+               UI.getActiveWorkbenchPage().showView(HaxeProfileView.ID);
+            } catch (final PartInitException ex) {
+               Haxe4EPlugin.log().error(ex);
+            }
+         });
+      } catch (final IOException | RuntimeException ex) {
+         Haxe4EPlugin.log().error(ex, "Failed to load CPU profile from [{0}].", profileDir.toString());
+      }
+   }
+
+   /**
+    * @param useCompilationServer if true, the build file is compiled via the compilation server kept alive between launches
+    */
+   private Processes.Builder getCompilerProcessBuilder(final HaxeSDK haxeSDK, final IProject project, final Path hxmlFilePath,
+         final boolean appendEnvVars, final boolean useCompilationServer) {
+      return getCompilerProcessBuilder(haxeSDK, project, List.of(hxmlFilePath.toString()), appendEnvVars, useCompilationServer);
+   }
+
+   /**
+    * @param args the compiler arguments, e.g. the path of a build file
+    * @param useCompilationServer if true, the arguments are compiled via the compilation server kept alive between launches
+    */
+   private Processes.Builder getCompilerProcessBuilder(final HaxeSDK haxeSDK, final IProject project, final List<String> args,
+         final boolean appendEnvVars, final boolean useCompilationServer) {
+      final var processBuilder = haxeSDK.getCompilerProcessBuilder(!appendEnvVars);
+      if (useCompilationServer) {
+         // code executed by the compiler (macros, --run, --interp) runs inside the server with the server's environment
+         final var server = HaxeCompilationServer.acquireForLaunches(haxeSDK, project);
+         if (server == null) {
+            Haxe4EPlugin.log().warn("Haxe compilation server for launches of project [{0}] is not available.", project.getName());
+         } else {
+            processBuilder.withArgs("--connect", server.getConnectAddress());
+         }
+      }
+      return processBuilder.withArgs(args.toArray());
+   }
+
+   @Override
+   public ILaunch getLaunch(final ILaunchConfiguration config, final String mode) throws CoreException {
+      if (Constants.LAUNCH_MODE_WATCH.equals(mode))
+         return new HaxeWatchLaunch(config, mode);
+      return super.getLaunch(config, mode);
+   }
+
+   /**
+    * @return the <code>--cmd</code> post-build commands of the given build file if its build output is up-to-date, or null if the
+    *         build file must be compiled, e.g. because it is executed by the compiler via <code>--run</code> or <code>--interp</code>,
+    *         declares no outputs or its outputs are missing
+    */
+   private @Nullable List<String> getPostBuildCommandsIfUpToDate(final BuildFile buildFile, final HaxeSDK haxeSDK,
+         final IProgressMonitor monitor) {
+      if (!(buildFile instanceof final HaxeBuildFile hxmlFile) || buildFile instanceof LixVirtualBuildFile)
+         return null;
+
+      final var commands = new ArrayList<String>();
+      try {
+         for (final var args : hxmlFile.getCompilationUnits()) {
+            if (args.contains("--run") || args.contains("--interp"))
+               return null; // the program is executed by the compiler, there is no build output to reuse
+            commands.addAll(HaxeBuildFile.getPostBuildCommands(args));
+         }
+         if (hxmlFile.getOutputPaths().isEmpty())
+            return null; // no build output to reuse
+      } catch (final RuntimeException ex) {
+         Haxe4EPlugin.log().debug(ex);
+         return null;
+      }
+      return HaxeBuilder.isUpToDate(buildFile, haxeSDK, monitor) ? commands : null;
+   }
+
+   /**
+    * @return true if compiling the given build file also runs a program, i.e. via <code>--run</code>, <code>--interp</code> or
+    *         <code>--cmd</code>, or if this cannot be determined
+    */
+   private boolean isProgramRunByCompiler(final BuildFile buildFile) {
+      if (!(buildFile instanceof final HaxeBuildFile hxmlFile))
+         return true;
+      try {
+         for (final var args : hxmlFile.getCompilationUnits()) {
+            for (final var arg : args) {
+               switch (arg) {
+                  case "--run", "--interp", "-cmd", "--cmd":
+                     return true;
+                  default:
+               }
+            }
+         }
+      } catch (final RuntimeException ex) {
+         Haxe4EPlugin.log().debug(ex);
+         return true;
+      }
+      return false;
+   }
+
+   private Processes.Builder getShellProcessBuilder(final String command) {
+      return SystemUtils.IS_OS_WINDOWS //
+            ? Processes.builder("cmd.exe").withArgs("/c", command)
+            : Processes.builder("sh").withArgs("-c", command);
+   }
+
+   /**
+    * Refreshes the outputs declared by the build file if the default refresh scope is configured, otherwise the configured scope.
+    */
+   private void refreshResources(final ILaunchConfiguration config, final BuildFile buildFile, final Path workdir) {
+      try {
+         final var scope = config.getAttribute(RefreshUtil.ATTR_REFRESH_SCOPE, (String) null);
+         final var projectLoc = buildFile.getProject().getLocation();
+         final var isDefaultScope = scope == null || LaunchConfigurations.DEFAULT_REFRESH_SCOPE.equals(scope);
+         // output paths are relative to the working directory of the compiler
+         if (isDefaultScope && projectLoc != null && workdir.equals(projectLoc.toFile().toPath())) {
+            HaxeBuildOutputs.refresh(buildFile, new NullProgressMonitor());
+         } else {
+            RefreshUtil.refreshResources(config, new NullProgressMonitor());
+         }
+      } catch (final CoreException ex) {
+         Haxe4EPlugin.log().error(ex);
+      }
+   }
 }
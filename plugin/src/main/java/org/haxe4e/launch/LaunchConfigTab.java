@@ -17,6 +17,7 @@
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.haxe4e.Constants;
 import org.haxe4e.Haxe4EPlugin;
@@ -31,6 +32,7 @@
 import org.haxe4e.widget.HaxeSDKSelectionGroup;
 
 import de.sebthom.eclipse.commons.resources.Projects;
+import de.sebthom.eclipse.commons.ui.Buttons;
 import de.sebthom.eclipse.commons.ui.Dialogs;
 import net.sf.jstuff.core.ref.MutableObservableRef;
 
@@ -42,6 +44,9 @@ public class LaunchConfigTab extends AbstractLaunchConfigurationTab {
    private MutableObservableRef<@Nullable IProject> selectedProject = lateNonNull();
    private MutableObservableRef<@Nullable BuildFile> selectedBuildFile = lateNonNull();
    private MutableObservableRef<@Nullable HaxeSDK> selectedAltSDK = lateNonNull();
+   private Button btnReuseBuildOutput = lateNonNull();
+   private Button btnUseCompilationServer = lateNonNull();
+   private Button btnHashLinkHotReload = lateNonNull();
 
    @Override
    public void createControl(final Composite parent) {
@@ -55,6 +60,18 @@ public void createControl(final Composite parent) {
       selectedProject.subscribe(grpBuildFile::setProject);
 
       selectedAltSDK = new HaxeSDKSelectionGroup(form).selectedAltSDK;
+
+      btnReuseBuildOutput = new Button(form, SWT.CHECK);
+      btnReuseBuildOutput.setText(Messages.Launch_ReuseBuildOutput);
+      Buttons.onSelected(btnReuseBuildOutput, this::updateLaunchConfigurationDialog);
+
+      btnUseCompilationServer = new Button(form, SWT.CHECK);
+      btnUseCompilationServer.setText(Messages.Launch_UseCompilationServer);
+      Buttons.onSelected(btnUseCompilationServer, this::updateLaunchConfigurationDialog);
+
+      btnHashLinkHotReload = new Button(form, SWT.CHECK);
+      btnHashLinkHotReload.setText(Messages.Launch_HashLinkHotReload);
+      Buttons.onSelected(btnHashLinkHotReload, this::updateLaunchConfigurationDialog);
       setControl(form);
    }
 
@@ -90,6 +107,10 @@ public void initializeFrom(final ILaunchConfiguration config) {
          final var altSDK = HaxeWorkspacePreference.getHaxeSDK(config.getAttribute(Constants.LAUNCH_ATTR_HAXE_SDK, ""));
          selectedAltSDK.set(altSDK);
          selectedAltSDK.subscribe(this::updateLaunchConfigurationDialog);
+
+         btnReuseBuildOutput.setSelection(config.getAttribute(Constants.LAUNCH_ATTR_REUSE_BUILD_OUTPUT, false));
+         btnUseCompilationServer.setSelection(config.getAttribute(Constants.LAUNCH_ATTR_USE_COMPILATION_SERVER, false));
+         btnHashLinkHotReload.setSelection(config.getAttribute(Constants.LAUNCH_ATTR_HASHLINK_HOT_RELOAD, false));
       } catch (final CoreException ex) {
          Dialogs.showStatus(Messages.Launch_InitializingLaunchConfigTabFailed, Haxe4EPlugin.status().createError(ex), true);
       }
@@ -110,6 +131,9 @@ public void performApply(final ILaunchConfigurationWorkingCopy config) {
             : asNonNull(selectedBuildFile.get()).getProjectRelativePath().toString());
       final var altSDK = selectedAltSDK.get();
       config.setAttribute(Constants.LAUNCH_ATTR_HAXE_SDK, altSDK == null ? "" : altSDK.getName());
+      config.setAttribute(Constants.LAUNCH_ATTR_REUSE_BUILD_OUTPUT, btnReuseBuildOutput.getSelection());
+      config.setAttribute(Constants.LAUNCH_ATTR_USE_COMPILATION_SERVER, btnUseCompilationServer.getSelection());
+      config.setAttribute(Constants.LAUNCH_ATTR_HASHLINK_HOT_RELOAD, btnHashLinkHotReload.getSelection());
    }
 
    @Override
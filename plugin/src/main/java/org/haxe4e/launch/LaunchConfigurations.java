@@ -23,6 +23,12 @@
  */
 public abstract class LaunchConfigurations {
 
+   /**
+    * refresh scope of new launch configurations. When used, only the outputs declared by the build file are refreshed after a launch
+    * instead of the whole project.
+    */
+   static final String DEFAULT_REFRESH_SCOPE = "${project}";
+
    public static ILaunchConfigurationWorkingCopy create(final BuildFile buildFile) throws CoreException {
       final var project = buildFile.getProject();
 
@@ -48,7 +54,7 @@ public static ILaunchConfigurationWorkingCopy create(final IProject project) thr
    }
 
    public static void initialize(final ILaunchConfigurationWorkingCopy config) {
-      config.setAttribute(RefreshTab.ATTR_REFRESH_SCOPE, "${project}");
+      config.setAttribute(RefreshTab.ATTR_REFRESH_SCOPE, DEFAULT_REFRESH_SCOPE);
       config.setAttribute(RefreshTab.ATTR_REFRESH_RECURSIVE, true);
       config.setAttribute(IDebugUIConstants.ATTR_FAVORITE_GROUPS, List.of(Constants.LAUNCH_HAXE_GROUP));
    }
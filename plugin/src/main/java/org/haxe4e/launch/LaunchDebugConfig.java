@@ -19,34 +19,32 @@
 import org.eclipse.lsp4e.debug.debugmodel.TransportStreams;
 import org.eclipse.lsp4e.debug.debugmodel.TransportStreams.DefaultTransportStreams;
 import org.eclipse.lsp4e.debug.launcher.DSPLaunchDelegate;
+import org.haxe4e.Haxe4EPlugin;
 import org.haxe4e.prefs.HaxeWorkspacePreference;
-import org.haxe4e.util.io.VSCodeJsonRpcLineTracing;
+import org.haxe4e.util.io.JsonRpcTraceSink;
 import org.haxe4e.util.io.VSCodeJsonRpcLineTracing.Source;
 
-import net.sf.jstuff.core.io.stream.LineCapturingInputStream;
-import net.sf.jstuff.core.io.stream.LineCapturingOutputStream;
-
 /**
  * @author Sebastian Thomschke
  */
 @SuppressWarnings("restriction")
 public class LaunchDebugConfig extends DSPLaunchDelegate {
 
+   private static final JsonRpcTraceSink TRACE = new JsonRpcTraceSink( //
+      Haxe4EPlugin.get().getStateLocation().append("traces").append("dap.log").toFile().toPath(), //
+      HaxeWorkspacePreference::isDAPTraceIO, //
+      HaxeWorkspacePreference::isDAPTraceIOVerbose);
+
    @Override
    @SuppressWarnings("resource")
    @NonNullByDefault({})
    protected IDebugTarget createDebugTarget(final SubMonitor mon, final Supplier<TransportStreams> streamsSupplier, final ILaunch launch,
          final Map<String, Object> dspParameters) throws CoreException {
-      final var isTraceIOVerbose = HaxeWorkspacePreference.isDAPTraceIOVerbose();
-      return isTraceIOVerbose || HaxeWorkspacePreference.isDAPTraceIO() //
-            ? super.createDebugTarget(mon, (Supplier<TransportStreams>) () -> {
-               final var streams = streamsSupplier.get();
-               return new DefaultTransportStreams( //
-                  new LineCapturingInputStream(asNonNullUnsafe(streams.in), line -> VSCodeJsonRpcLineTracing.traceLine(Source.SERVER_OUT,
-                     line, isTraceIOVerbose)), //
-                  new LineCapturingOutputStream(asNonNullUnsafe(streams.out), line -> VSCodeJsonRpcLineTracing.traceLine(Source.CLIENT_OUT,
-                     line, isTraceIOVerbose)));
-            }, launch, dspParameters)
-            : super.createDebugTarget(mon, streamsSupplier, launch, dspParameters);
+      return super.createDebugTarget(mon, (Supplier<TransportStreams>) () -> {
+         final var streams = streamsSupplier.get();
+         return new DefaultTransportStreams( //
+            TRACE.trace(asNonNullUnsafe(streams.in), Source.SERVER_OUT), //
+            TRACE.trace(asNonNullUnsafe(streams.out), Source.CLIENT_OUT));
+      }, launch, dspParameters);
    }
 }
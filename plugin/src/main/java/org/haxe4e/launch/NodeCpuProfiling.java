@@ -0,0 +1,78 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.launch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.wildwebdeveloper.embedder.node.NodeJSManager;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.model.buildsystem.HaxeBuildFile;
+
+import net.sf.jstuff.core.io.Processes;
+
+/**
+ * Profiles the JavaScript output of a build file with <code>node --cpu-prof</code>. The output is compiled with
+ * <code>-D js-source-map</code>, so the sampled frames can be mapped back to the <code>.hx</code> sources.
+ *
+ * @param compilerArgs the arguments of the compilation unit generating the <code>.js</code> file without post-build commands, as
+ *           these usually run the program without profiler
+ * @param output the <code>.js</code> file as specified in the build file, i.e. relative to the working directory
+ *
+ * @author Sebastian Thomschke
+ */
+record NodeCpuProfiling(List<String> compilerArgs, String output) {
+
+   private static final String PROFILE_FILE_EXTENSION = ".cpuprofile";
+
+   /**
+    * @return null if the given build file does not generate JavaScript
+    */
+   static @Nullable NodeCpuProfiling of(final HaxeBuildFile buildFile) {
+      try {
+         for (final var unit : buildFile.getCompilationUnits()) {
+            for (int i = 0; i < unit.size() - 1; i++) {
+               final var arg = unit.get(i);
+               if ("-js".equals(arg) || "--js".equals(arg)) {
+                  final var compilerArgs = new ArrayList<>(HaxeBuildFile.withoutPostBuildCommands(unit));
+                  compilerArgs.add("-D");
+                  compilerArgs.add("js-source-map");
+                  return new NodeCpuProfiling(compilerArgs, unit.get(i + 1));
+               }
+            }
+         }
+      } catch (final RuntimeException ex) {
+         Haxe4EPlugin.log().error(ex);
+      }
+      return null;
+   }
+
+   /**
+    * @return the most recent profile written to the given directory or null if none
+    */
+   static @Nullable Path findProfile(final Path profileDir) throws IOException {
+      try (var files = Files.list(profileDir)) {
+         return files //
+            .filter(file -> file.getFileName().toString().endsWith(PROFILE_FILE_EXTENSION)) //
+            .max(Comparator.comparingLong(file -> file.toFile().lastModified())) //
+            .orElse(null);
+      }
+   }
+
+   /**
+    * @param profileDir the directory node writes the profile to when the program exits
+    */
+   Processes.Builder getProgramProcessBuilder(final Path profileDir) {
+      return Processes.builder(NodeJSManager.getNodeJsLocation()) //
+         .withArgs("--cpu-prof", "--cpu-prof-dir=" + profileDir, output);
+   }
+}
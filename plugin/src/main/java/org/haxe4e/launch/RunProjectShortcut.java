@@ -82,7 +82,12 @@ private void launchProject(final IProject project, final String mode) {
 
          // create a new launch config
          final var newLaunchConfig = LaunchConfigurations.create(project);
-         final String groupId = "debug".equals(mode) ? IDebugUIConstants.ID_DEBUG_LAUNCH_GROUP : Constants.LAUNCH_HAXE_GROUP;
+         final String groupId = switch (mode) {
+            case "debug" -> IDebugUIConstants.ID_DEBUG_LAUNCH_GROUP;
+            case "profile" -> IDebugUIConstants.ID_PROFILE_LAUNCH_GROUP;
+            case Constants.LAUNCH_MODE_WATCH -> Constants.LAUNCH_HAXE_WATCH_GROUP;
+            default -> Constants.LAUNCH_HAXE_GROUP;
+         };
          if (Window.OK == DebugUITools.openLaunchConfigurationDialog(UI.getShell(), newLaunchConfig, groupId, null)) {
             newLaunchConfig.doSave();
          }
@@ -0,0 +1,157 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.launch;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Minimal reader of <a href="https://sourcemaps.info/spec.html">source maps (v3)</a> as generated by the Haxe compiler for the
+ * JavaScript target with <code>-D js-source-map</code>, used to map positions of the generated code back to the <code>.hx</code>
+ * sources.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class SourceMap {
+
+   /**
+    * @param source the source file as specified in the source map, i.e. usually relative to the source map file
+    * @param line 1-based line number
+    */
+   public record Location(String source, int line) {
+   }
+
+   @SuppressWarnings("unused")
+   private static final class SourceMapJSON {
+      public int version;
+      public @Nullable String sourceRoot;
+      public List<String> sources = List.of();
+      public String mappings = "";
+   }
+
+   private static final ObjectMapper JSON = new ObjectMapper() //
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+   private static final String BASE64_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+
+   private static final int[] NO_SEGMENTS = {};
+
+   public static SourceMap load(final Path sourceMapFile) throws IOException {
+      return parse(JSON.readValue(sourceMapFile.toFile(), SourceMapJSON.class));
+   }
+
+   public static SourceMap parse(final String json) throws IOException {
+      return parse(JSON.readValue(json, SourceMapJSON.class));
+   }
+
+   private static SourceMap parse(final SourceMapJSON json) {
+      final var sourceRoot = json.sourceRoot;
+      final var sources = json.sources.stream() //
+         .map(source -> sourceRoot == null || sourceRoot.isEmpty() ? source : sourceRoot.replaceAll("/$", "") + "/" + source) //
+         .toList();
+
+      // each generated line is stored as a flat array of (generated column, source index, 0-based source line) triples
+      final var lines = new ArrayList<int[]>();
+      final var mappings = json.mappings;
+      final var fields = new int[5];
+      int sourceIndex = 0;
+      int sourceLine = 0;
+      var lineSegments = new int[16];
+      int lineSegmentsLen = 0;
+      int generatedColumn = 0;
+      int pos = 0;
+      while (pos <= mappings.length()) {
+         if (pos == mappings.length() || mappings.charAt(pos) == ';') {
+            lines.add(lineSegmentsLen == 0 ? NO_SEGMENTS : Arrays.copyOf(lineSegments, lineSegmentsLen));
+            lineSegmentsLen = 0;
+            generatedColumn = 0;
+            pos++;
+            continue;
+         }
+         if (mappings.charAt(pos) == ',') {
+            pos++;
+            continue;
+         }
+
+         // decode one segment of base64 VLQ values
+         int fieldCount = 0;
+         while (pos < mappings.length() && mappings.charAt(pos) != ',' && mappings.charAt(pos) != ';') {
+            int value = 0;
+            int shift = 0;
+            int digit;
+            do {
+               digit = BASE64_CHARS.indexOf(mappings.charAt(pos++));
+               if (digit < 0)
+                  throw new IllegalArgumentException("Invalid source map mappings at position " + (pos - 1));
+               value += (digit & 0b11111) << shift;
+               shift += 5;
+            } while ((digit & 0b100000) != 0 && pos < mappings.length());
+            if (fieldCount < fields.length) {
+               fields[fieldCount++] = (value & 1) == 1 ? -(value >>> 1) : value >>> 1;
+            }
+         }
+
+         generatedColumn += fields[0];
+         if (fieldCount >= 4) {
+            sourceIndex += fields[1];
+            sourceLine += fields[2];
+            if (lineSegmentsLen + 3 > lineSegments.length) {
+               lineSegments = Arrays.copyOf(lineSegments, lineSegments.length * 2);
+            }
+            lineSegments[lineSegmentsLen++] = generatedColumn;
+            lineSegments[lineSegmentsLen++] = sourceIndex;
+            lineSegments[lineSegmentsLen++] = sourceLine;
+         }
+      }
+      return new SourceMap(sources, lines);
+   }
+
+   private final List<String> sources;
+   private final List<int[]> lines;
+
+   private SourceMap(final List<String> sources, final List<int[]> lines) {
+      this.sources = sources;
+      this.lines = lines;
+   }
+
+   /**
+    * @param line 0-based line of the generated code
+    * @param column 0-based column of the generated code
+    * @return the source location of the mapping segment covering the given position or null if not mapped
+    */
+   public @Nullable Location lookup(final int line, final int column) {
+      if (line < 0 || line >= lines.size())
+         return null;
+
+      final var segments = lines.get(line);
+      int found = -1;
+      for (int i = 0; i < segments.length; i += 3) {
+         if (segments[i] > column) {
+            break;
+         }
+         found = i;
+      }
+      if (found < 0) {
+         if (segments.length == 0)
+            return null;
+         found = 0; // position before the first segment, e.g. indentation
+      }
+
+      final var sourceIndex = segments[found + 1];
+      if (sourceIndex < 0 || sourceIndex >= sources.size())
+         return null;
+      return new Location(sources.get(sourceIndex), segments[found + 2] + 1);
+   }
+}
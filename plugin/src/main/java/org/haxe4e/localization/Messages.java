@@ -76,6 +76,14 @@ public final class Messages extends NLS {
    public static String Launch_CouldNotRunHaxe = "Could not run Haxe";
    public static String Launch_InitializingLaunchConfigTabFailed = "Initializing LaunchConfigTab failed";
    public static String Launch_CreatingLaunchConfigFailed = "Creating new launch configuration failed";
+   public static String Launch_ReuseBuildOutput = "Skip compilation if the build output is up-to-date (only --cmd steps are executed)";
+   public static String Launch_UseCompilationServer = "Compile and run via a compilation server kept alive between launches (--connect)";
+   public static String Launch_HashLinkHotReload = "Watch mode: reload recompiled code into the running HashLink program (hl --hot-reload)";
+   public static String Launch_HashLinkCompiler = "Haxe Compiler";
+   public static String Launch_HashLinkProgram = "HashLink";
+   public static String Launch_ProfiledProgram = "Node.js (CPU profiling)";
+   public static String Launch_ProfilingNotSupported = "Profiling not supported";
+   public static String Launch_ProfilingNotSupported_Descr = "Only build files generating JavaScript (--js) can be profiled.";
 
    static {
       MessagesInitializer.initializeMessages(BUNDLE_NAME, Messages.class);
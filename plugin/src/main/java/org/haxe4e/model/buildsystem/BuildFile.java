@@ -51,6 +51,20 @@ public Collection<Haxelib> getDependencies(final HaxeSDK haxeSDK, final IProgres
 
    public abstract Collection<Haxelib> getDirectDependencies(HaxeSDK haxeSDK, IProgressMonitor monitor);
 
+   /**
+    * @return this build file and all build files included by it
+    */
+   public Set<IFile> getBuildFiles() {
+      return Set.of(location);
+   }
+
+   /**
+    * @return project relative paths of the files and folders written by the compiler
+    */
+   public Set<IPath> getOutputPaths() {
+      return Set.of();
+   }
+
    public IProject getProject() {
       return asNonNullUnsafe(location.getProject());
    }
@@ -15,6 +15,7 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -71,6 +72,10 @@ public static List<String> parseArgs(final IFile buildFile) throws RuntimeIOExce
       return parseArgs(asNonNull(buildFile.getLocation()).toFile().toPath());
    }
 
+   /**
+    * Splits the given build file into arguments. Like the Haxe compiler, the remainder of a line starting with <code>-cmd</code> or
+    * <code>--cmd</code> is treated as a single argument, i.e. the command line is kept as is.
+    */
    public static List<String> parseArgs(final Path buildFile) throws RuntimeIOException {
       if (!Files.exists(buildFile))
          return Collections.emptyList();
@@ -80,6 +85,15 @@ public static List<String> parseArgs(final Path buildFile) throws RuntimeIOExcep
          final MutableRef<@Nullable Character> quotedWith = MutableRef.ofNullable(null);
          final var arg = new StringBuilder();
          lines.forEach(line -> {
+            if (quotedWith.get() == null && arg.length() == 0) {
+               final var cmd = line.strip().split("\\s+", 2);
+               if (cmd.length == 2 && ("-cmd".equals(cmd[0]) || "--cmd".equals(cmd[0]))) {
+                  args.add(cmd[0]);
+                  args.add(cmd[1]);
+                  return;
+               }
+            }
+
             for (final var ch : line.toCharArray()) {
                switch (ch) {
                   case '#':
@@ -140,6 +154,70 @@ public static List<String> parseArgs(final Path buildFile) throws RuntimeIOExcep
       return args;
    }
 
+   /**
+    * @param args compiler arguments as returned by {@link #parseArgs(Path)}, i.e. each command is a single argument
+    * @return the <code>--cmd</code> post-build commands contained in the given compiler arguments
+    */
+   public static List<String> getPostBuildCommands(final List<String> args) {
+      return getOptionValues(args, arg -> "-cmd".equals(arg) || "--cmd".equals(arg));
+   }
+
+   /**
+    * @param args compiler arguments as returned by {@link #parseArgs(Path)}, i.e. each command is a single argument
+    * @return the given compiler arguments of a single compilation unit without the <code>--cmd</code> post-build commands
+    */
+   public static List<String> withoutPostBuildCommands(final List<String> args) {
+      final var result = new ArrayList<String>(args.size());
+      for (int i = 0; i < args.size(); i++) {
+         final var arg = args.get(i);
+         if ("-cmd".equals(arg) || "--cmd".equals(arg)) {
+            i++; // skip command
+         } else {
+            result.add(arg);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Converts the given compiler arguments of a single compilation unit to arguments that only type-check the code, i.e. no output is
+    * generated and no post-build steps are executed:
+    * <ul>
+    * <li><code>--no-output</code> is added, which also prevents <code>--interp</code> from executing the program
+    * <li><code>--cmd</code> post-build commands are removed
+    * <li><code>--run &lt;module&gt; [args...]</code> is replaced by <code>--main &lt;module&gt; --interp</code>
+    * </ul>
+    * The eval target of <code>--interp</code> is kept, as without a target the code would be type-checked for the "cross" target
+    * resulting in false errors for sys/eval specific code.
+    */
+   public static List<String> toTypeCheckArgs(final List<String> args) {
+      final var typeCheckArgs = new ArrayList<String>(args.size() + 1);
+      for (int i = 0; i < args.size(); i++) {
+         final var arg = args.get(i);
+         switch (arg) {
+            case "-cmd", "--cmd":
+               i++; // skip command
+               break;
+            case "--no-output":
+               break;
+            case "--run":
+               if (i + 1 < args.size()) {
+                  typeCheckArgs.add("--main");
+                  typeCheckArgs.add(args.get(i + 1));
+                  if (!typeCheckArgs.contains("--interp")) {
+                     typeCheckArgs.add("--interp");
+                  }
+               }
+               i = args.size(); // all remaining args are program args
+               break;
+            default:
+               typeCheckArgs.add(arg);
+         }
+      }
+      typeCheckArgs.add("--no-output");
+      return typeCheckArgs;
+   }
+
    private final Supplier<BuildFileContent> content = Suppliers.memoize(() -> {
       final var content = new BuildFileContent(parseArgs(location));
       for (final var arg : content.args) {
@@ -154,14 +232,7 @@ public static List<String> parseArgs(final Path buildFile) throws RuntimeIOExcep
    }, (args, ageMS) -> System.currentTimeMillis() - Resources.lastModified(location) > ageMS);
 
    private final Supplier<Set<IPath>> getSourcePaths = Suppliers.memoize(() -> {
-      final var args = getArgs();
-
-      final var sourcePaths = getOptionValues(args, arg -> switch (arg) {
-         case "-p", "-cp", "--class-path" -> true;
-         default -> false;
-      }).stream() //
-         .map(str -> asNonNull(location.getParent()).getProjectRelativePath().append(str)) //
-         .collect(Collectors.toCollection(LinkedHashSet::new));
+      final var sourcePaths = getSourcePaths(getArgs());
 
       if (sourcePaths.isEmpty()) {
          final var jsonFile = getProject().getFile(HaxelibJSON.FILENAME);
@@ -192,6 +263,107 @@ public HaxeBuildFile(final IFile location) {
       this(BuildSystem.HAXE, location);
    }
 
+   /**
+    * Splits the arguments of this build file into separate compilation units as separated by <code>--next</code>. Arguments
+    * specified before <code>--each</code> are added to every compilation unit.
+    *
+    * See https://haxe.org/manual/compiler-usage-hxml.html
+    *
+    * @return the arguments of each compilation unit with all included build files inlined
+    */
+   public List<List<String>> getCompilationUnits() throws RuntimeIOException {
+      final var commonArgs = new ArrayList<String>();
+      final var units = new ArrayList<List<String>>();
+      var unitArgs = new ArrayList<String>();
+      for (final var arg : getExpandedArgs()) {
+         switch (arg) {
+            case "--each":
+               commonArgs.addAll(unitArgs);
+               unitArgs = new ArrayList<>();
+               break;
+            case "--next":
+               if (!unitArgs.isEmpty()) {
+                  final var unit = new ArrayList<>(commonArgs);
+                  unit.addAll(unitArgs);
+                  units.add(unit);
+               }
+               unitArgs = new ArrayList<>();
+               break;
+            default:
+               unitArgs.add(arg);
+         }
+      }
+      if (!unitArgs.isEmpty() || (units.isEmpty() && !commonArgs.isEmpty())) {
+         final var unit = new ArrayList<>(commonArgs);
+         unit.addAll(unitArgs);
+         units.add(unit);
+      }
+      return units;
+   }
+
+   /**
+    * @return the arguments of this build file with referenced build files inlined at the position where they are referenced
+    */
+   public List<String> getExpandedArgs() throws RuntimeIOException {
+      final var args = new ArrayList<String>();
+      collectExpandedArgs(args, new HashSet<>());
+      return args;
+   }
+
+   private void collectExpandedArgs(final List<String> collected, final Set<IFile> visited) {
+      if (!visited.add(location))
+         return; // prevent endless recursion on circular includes
+
+      for (final var arg : getBuildFileContent().args) {
+         if (arg.endsWith(".hxml")) {
+            final var member = asNonNull(location.getParent()).findMember(arg);
+            if (member instanceof final IFile file && file.exists()) {
+               new HaxeBuildFile(file).collectExpandedArgs(collected, visited);
+               continue;
+            }
+         }
+         collected.add(arg);
+      }
+   }
+
+   @Override
+   public Set<IFile> getBuildFiles() throws RuntimeIOException {
+      final var buildFiles = new LinkedHashSet<IFile>();
+      collectExpandedArgs(new ArrayList<>(), buildFiles);
+      return buildFiles;
+   }
+
+   @Override
+   public Set<IPath> getOutputPaths() throws RuntimeIOException {
+      return getOutputPaths(getExpandedArgs());
+   }
+
+   /**
+    * @param args compiler arguments, e.g. of a single compilation unit as returned by {@link #getCompilationUnits()}
+    * @return project relative paths of the files and folders written by the compiler when run with the given arguments
+    */
+   public Set<IPath> getOutputPaths(final List<String> args) {
+      final var baseDir = asNonNull(location.getParent()).getProjectRelativePath();
+      final var outputPaths = getOptionValues(args, arg -> switch (arg) {
+         case "-js", "--js", "-hl", "--hl", "-cpp", "--cpp", "-cppia", "--cppia", "-cs", "--cs", "-java", "--java", "--jvm", //
+               "-lua", "--lua", "-neko", "--neko", "-php", "--php", "-python", "--python", "-swf", "--swf", "-xml", "--xml", //
+               "--json" -> true;
+         default -> false;
+      }).stream() //
+         .map(baseDir::append) //
+         .collect(Collectors.toCollection(LinkedHashSet::new));
+
+      // see https://haxe.org/manual/compiler-usage-flags.html
+      for (final var define : getOptionValues(args, arg -> "-D".equals(arg) || "--define".equals(arg))) {
+         if ("dump".equals(define) || define.startsWith("dump=")) {
+            outputPaths.add(baseDir.append("dump"));
+         } else if (define.startsWith("dump-path=")) {
+            outputPaths.add(baseDir.append(define.substring("dump-path=".length())));
+         }
+      }
+      return outputPaths;
+   }
+
    public List<String> getArgs() throws RuntimeIOException {
       final var args = new ArrayList<String>();
       final var content = getBuildFileContent();
@@ -236,4 +408,17 @@ public Collection<Haxelib> getDirectDependencies(final HaxeSDK haxeSDK, final IP
    public Set<IPath> getSourcePaths() throws RuntimeIOException {
       return getSourcePaths.get();
    }
+
+   /**
+    * @param args compiler arguments, e.g. of a single compilation unit as returned by {@link #getCompilationUnits()}
+    * @return project relative paths of the class paths declared in the given arguments
+    */
+   public Set<IPath> getSourcePaths(final List<String> args) {
+      return getOptionValues(args, arg -> switch (arg) {
+         case "-p", "-cp", "--class-path" -> true;
+         default -> false;
+      }).stream() //
+         .map(str -> asNonNull(location.getParent()).getProjectRelativePath().append(str)) //
+         .collect(Collectors.toCollection(LinkedHashSet::new));
+   }
 }
@@ -76,6 +76,20 @@ public Set<IPath> getSourcePaths() throws RuntimeIOException, XMLException {
       return paths;
    }
 
+   /**
+    * See https://lime.openfl.org/docs/project-files/xml-format/
+    */
+   @Override
+   public Set<IPath> getOutputPaths() throws RuntimeIOException, XMLException {
+      final var domFile = parseFile();
+      for (final var appNode : domFile.findNodes("/project/app")) {
+         final var path = ((Element) appNode).getAttribute("path");
+         if (path != null && !path.isBlank())
+            return Set.of(asNonNull(location.getParent()).getProjectRelativePath().append(path));
+      }
+      return Set.of(asNonNull(location.getParent()).getProjectRelativePath().append("Export"));
+   }
+
    protected DOMFile parseFile() throws RuntimeIOException, XMLException {
       return parseFile(asNonNull(location.getLocation()).toFile());
    }
@@ -9,7 +9,11 @@
 import static net.sf.jstuff.core.validation.NullAnalysisHelper.*;
 
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -18,13 +22,20 @@
 import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.ICoreRunnable;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.QualifiedName;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.annotation.Nullable;
 import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.builder.HaxeProjectGraph;
+import org.haxe4e.langserver.HaxeLangServerInitOptions;
 import org.haxe4e.model.HaxelibJSON;
 import org.haxe4e.prefs.HaxeProjectPreference;
 import org.haxe4e.project.HaxeProjectNature;
@@ -42,6 +53,37 @@ public final class HaxeDependenciesUpdater extends AbstractResourcesChangedListe
 
    public static final HaxeDependenciesUpdater INSTANCE = new HaxeDependenciesUpdater();
 
+   /**
+    * names of the projects registered as dynamic references by {@link #updateProjectReferences}, separated by line breaks
+    */
+   private static final QualifiedName PROVIDER_REFERENCES = new QualifiedName(Haxe4EPlugin.PLUGIN_ID, "providerReferences");
+
+   /**
+    * @return the projects registered as dynamic references of the given project by a previous dependency update
+    */
+   private static Set<IProject> getProviderReferences(final IProject project) throws CoreException {
+      final var names = project.getPersistentProperty(PROVIDER_REFERENCES);
+      if (names == null || names.isBlank())
+         return Set.of();
+      final var root = ResourcesPlugin.getWorkspace().getRoot();
+      return names.lines().map(root::getProject).collect(Collectors.toSet());
+   }
+
+   /**
+    * Runs the given action holding only the given scheduling rule.
+    */
+   private static void runWithRule(final @Nullable ISchedulingRule rule, final ICoreRunnable action, final IProgressMonitor monitor)
+         throws CoreException {
+      ResourcesPlugin.getWorkspace().run(action, rule, IWorkspace.AVOID_UPDATE, monitor);
+   }
+
+   /**
+    * One job per project, so updates of the same project are serialized without the job holding a scheduling rule. Resource
+    * modifications are performed holding only the rules of the modified magic folders, so a slow dependency resolution (e.g. a
+    * haxelib install) neither blocks builds nor edits of the project.
+    */
+   private final Map<IProject, Job> jobs = new WeakHashMap<>();
+
    private HaxeDependenciesUpdater() {
    }
 
@@ -49,15 +91,22 @@ public void onProjectConfigChanged(final IProject project) {
       if (!HaxeProjectNature.hasNature(project))
          return; // ignore
 
-      final var job = new Job("Updating 'Haxe Dependencies' list of project '" + project.getName() + "'...") {
-         @Override
-         protected IStatus run(final IProgressMonitor monitor) {
-            return updateProjectDependencies(project, monitor);
-         }
-      };
-      job.setRule(project); // synchronize job execution on project
-      job.setPriority(Job.BUILD);
-      job.schedule();
+      HaxeLangServerInitOptions.INSTANCE.update(project);
+
+      final Job job;
+      synchronized (jobs) {
+         job = jobs.computeIfAbsent(project, p -> {
+            final var newJob = new Job("Updating 'Haxe Dependencies' list of project '" + p.getName() + "'...") {
+               @Override
+               protected IStatus run(final IProgressMonitor monitor) {
+                  return updateProjectDependencies(p, monitor);
+               }
+            };
+            newJob.setPriority(Job.BUILD);
+            return newJob;
+         });
+      }
+      job.schedule(); // if the job is running it is rescheduled once it is done
    }
 
    public void onProjectsConfigChanged(final List<IProject> projects) {
@@ -129,6 +178,32 @@ public void resourceChanged(final IResourceChangeEvent event) {
       }
    }
 
+   /**
+    * Registers the workspace projects providing haxelibs to the given project as dynamic project references, so the workspace builds
+    * providers before their consumers and independent projects can be built concurrently.
+    * <p>
+    * Only the references registered by a previous update are replaced, dynamic references contributed by other plug-ins are kept.
+    */
+   private void updateProjectReferences(final IProject project, final List<IProject> providers, final IProgressMonitor monitor)
+         throws CoreException {
+      final var previousProviders = getProviderReferences(project);
+      if (previousProviders.equals(Set.copyOf(providers)) //
+            && Set.of(project.getDescription().getDynamicReferences()).containsAll(providers))
+         return;
+
+      runWithRule(ResourcesPlugin.getWorkspace().getRuleFactory().modifyRule(project), m -> {
+         final var desc = project.getDescription();
+         final var references = new LinkedHashSet<>(List.of(desc.getDynamicReferences()));
+         references.removeAll(previousProviders);
+         references.addAll(providers);
+         desc.setDynamicReferences(references.toArray(IProject[]::new));
+         project.setDescription(desc, IResource.AVOID_NATURE_CONFIG | IResource.KEEP_HISTORY, m);
+         project.setPersistentProperty(PROVIDER_REFERENCES, providers.isEmpty() //
+               ? null
+               : providers.stream().map(IProject::getName).collect(Collectors.joining("\n")));
+      }, monitor);
+   }
+
    private IStatus updateProjectDependencies(final IProject project, final IProgressMonitor monitor) {
       try {
          final var prefs = HaxeProjectPreference.get(project);
@@ -137,6 +212,8 @@ private IStatus updateProjectDependencies(final IProject project, final IProgres
          if (sdk == null)
             return Haxe4EPlugin.status().createError("Cannot update 'Haxe Dependencies' list. Haxe SDK cannot be found!");
 
+         final var ruleFactory = ResourcesPlugin.getWorkspace().getRuleFactory();
+
          /*
           * create/update haxe stdlib top-level virtual folder
           */
@@ -146,13 +223,15 @@ private IStatus updateProjectDependencies(final IProject project, final IProgres
                return Haxe4EPlugin.status().createError("Cannot update Haxe standard library folder. Physical folder with name '"
                      + STDLIB_MAGIC_FOLDER_NAME + "' exists!");
             if (!asNonNull(stdLibFolder.getLocation()).toFile().toPath().equals(sdk.getStandardLibDir())) {
-               stdLibFolder.createLink(sdk.getStandardLibDir().toUri(), IResource.REPLACE, monitor);
+               runWithRule(ruleFactory.createRule(stdLibFolder), //
+                  m -> stdLibFolder.createLink(sdk.getStandardLibDir().toUri(), IResource.REPLACE, m), monitor);
             }
          } else {
-            stdLibFolder.createLink(sdk.getStandardLibDir().toUri(), IResource.REPLACE, monitor);
+            runWithRule(ruleFactory.createRule(stdLibFolder), //
+               m -> stdLibFolder.createLink(sdk.getStandardLibDir().toUri(), IResource.REPLACE, m), monitor);
          }
          if (!stdLibFolder.isDerived()) {
-            stdLibFolder.setDerived(true, monitor);
+            runWithRule(ruleFactory.derivedRule(stdLibFolder), m -> stdLibFolder.setDerived(true, m), monitor);
          }
 
          /*
@@ -164,8 +243,10 @@ private IStatus updateProjectDependencies(final IProject project, final IProgres
          // if no build file exists remove the dependencies folder
          if (buildFile == null) {
             if (depsFolder.exists() && depsFolder.isVirtual()) {
-               depsFolder.delete(true, monitor);
+               runWithRule(ruleFactory.deleteRule(depsFolder), m -> depsFolder.delete(true, m), monitor);
             }
+            HaxeProjectGraph.INSTANCE.remove(project);
+            updateProjectReferences(project, List.of(), monitor);
             return Status.OK_STATUS;
          }
 
@@ -174,35 +255,41 @@ private IStatus updateProjectDependencies(final IProject project, final IProgres
                return Haxe4EPlugin.status().createError("Cannot update 'Haxe Dependencies' list. Physical folder with name '"
                      + DEPS_MAGIC_FOLDER_NAME + "' exists!");
          } else {
-            depsFolder.create(IResource.VIRTUAL, true, monitor);
+            runWithRule(ruleFactory.createRule(depsFolder), m -> depsFolder.create(IResource.VIRTUAL, true, m), monitor);
          }
          if (!depsFolder.isDerived()) {
-            depsFolder.setDerived(true, monitor);
+            runWithRule(ruleFactory.derivedRule(depsFolder), m -> depsFolder.setDerived(true, m), monitor);
          }
 
+         // resolving the dependencies may take long (e.g. when installing haxelibs) and is done without holding any rule
+         final var deps = buildFile.getDependencies(sdk, monitor);
+         updateProjectReferences(project, HaxeProjectGraph.INSTANCE.update(project, deps), monitor);
+
          @SuppressWarnings("null")
-         final var depsToCheck = buildFile //
-            .getDependencies(sdk, monitor).stream() //
+         final var depsToCheck = deps.stream() //
             .collect(Collectors.toMap(d -> d.meta.name + " [" + (d.isDevVersion ? "dev" : d.meta.version) + "]", Function.identity()));
 
-         for (final var folder : depsFolder.members()) {
-            if (depsToCheck.containsKey(folder.getName())) {
-               final var dep = asNonNullUnsafe(depsToCheck.get(folder.getName()));
-               final var rawLoc = folder.getRawLocation();
-               if (rawLoc != null && dep.location.equals(rawLoc.toFile().toPath())) {
-                  depsToCheck.remove(folder.getName());
+         // the links are children of the virtual dependencies folder, thus locking this folder suffices
+         runWithRule(depsFolder, m -> {
+            for (final var folder : depsFolder.members()) {
+               if (depsToCheck.containsKey(folder.getName())) {
+                  final var dep = asNonNullUnsafe(depsToCheck.get(folder.getName()));
+                  final var rawLoc = folder.getRawLocation();
+                  if (rawLoc != null && dep.location.equals(rawLoc.toFile().toPath())) {
+                     depsToCheck.remove(folder.getName());
+                  } else {
+                     folder.delete(true, m); // delete broken folder link
+                  }
                } else {
-                  folder.delete(true, monitor); // delete broken folder link
+                  folder.delete(true, m); // delete folder link to (now) unused dependency
                }
-            } else {
-               folder.delete(true, monitor); // delete folder link to (now) unused dependency
             }
-         }
 
-         for (final var dep : depsToCheck.entrySet()) {
-            final var folder = depsFolder.getFolder(dep.getKey());
-            folder.createLink(dep.getValue().location.toUri(), IResource.BACKGROUND_REFRESH, monitor);
-         }
+            for (final var dep : depsToCheck.entrySet()) {
+               final var folder = depsFolder.getFolder(dep.getKey());
+               folder.createLink(dep.getValue().location.toUri(), IResource.BACKGROUND_REFRESH, m);
+            }
+         }, monitor);
          return Status.OK_STATUS;
       } catch (final Exception ex) {
          return Haxe4EPlugin.status().createError(ex, "Failed to update 'Haxe Dependencies' list.");
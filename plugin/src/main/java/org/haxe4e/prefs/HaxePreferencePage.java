@@ -31,11 +31,28 @@ public void init(final IWorkbench workbench) {
       setPreferenceStore(HaxeWorkspacePreference.STORE);
    }
 
+   @Override
+   public boolean performOk() {
+      final var wasParallelProjectBuilds = HaxeWorkspacePreference.isParallelProjectBuilds();
+      final var result = super.performOk();
+      if (wasParallelProjectBuilds != HaxeWorkspacePreference.isParallelProjectBuilds()) {
+         HaxeWorkspacePreference.applyParallelProjectBuilds();
+      }
+      return result;
+   }
+
    @Override
    protected void createFieldEditors() {
       final var parent = getFieldEditorParent();
 
+      addField(new GroupFieldEditor("Haxe Builder", parent, group -> List.of( //
+         new BooleanFieldEditor(HaxeWorkspacePreference.PREFKEY_PARALLEL_PROJECT_BUILDS,
+            "Build independent projects in parallel (sets the workspace's max. concurrent builds)", group) //
+      )));
+
       addField(new GroupFieldEditor("Haxe Language Server - Troubleshooting", parent, group -> List.of( //
+         new BooleanFieldEditor(HaxeWorkspacePreference.PREFKEY_LSP_METRICS,
+            "Collect latency metrics of Language Server Protocol communication (see view 'Haxe Language Server Metrics')", group), //
          new BooleanFieldEditor(HaxeWorkspacePreference.PREFKEY_LSP_TRACE_INITOPTS, "Log Init Options", group), //
          new BooleanFieldEditor(HaxeWorkspacePreference.PREFKEY_LSP_TRACE_IO, "Log Language Server Protocol communication", group), //
          new BooleanFieldEditor(HaxeWorkspacePreference.PREFKEY_LSP_TRACE_METHOD_RESULTS,
@@ -35,12 +35,32 @@
  */
 public final class HaxeProjectPreference {
 
+   public enum AutoBuildMode {
+      /**
+       * auto-builds execute the build file as is, generating all artifacts
+       */
+      FULL,
+
+      /**
+       * auto-builds only type-check the code using <code>--no-output</code> without post-build steps, artifacts are only generated by
+       * explicit or clean builds
+       */
+      TYPE_CHECK
+   }
+
    private static final WeakHashMap<IProject, HaxeProjectPreference> PREFS_BY_PROJECT = new WeakHashMap<>();
 
    private static final String PROPERTY_ALTERNATE_AUTO_BUILD = "haxe.project.auto_build";
+   private static final String PROPERTY_AUTO_BUILD_DELAY = "haxe.project.auto_build.delay";
+   private static final String PROPERTY_AUTO_BUILD_MODE = "haxe.project.auto_build.mode";
    private static final String PROPERTY_ALTERNATE_HAXE_SDK = "haxe.project.alternate_sdk";
    private static final String PROPERTY_BUILD_FILE = "haxe.project.build_file";
+   private static final String PROPERTY_BUILD_FILES_ADDITIONAL = "haxe.project.build_files.additional";
    private static final String PROPERTY_BUILD_SYSTEM = "haxe.project.build_system";
+   private static final String PROPERTY_BUILD_TIMINGS = "haxe.project.build_timings";
+   private static final String PROPERTY_COMPILATION_SERVER = "haxe.project.compilation_server";
+   private static final String PROPERTY_PARALLEL_BUILD = "haxe.project.parallel_build";
+   private static final String PROPERTY_PARALLEL_BUILD_MAX_WORKERS = "haxe.project.parallel_build.max_workers";
 
    public static HaxeProjectPreference get(final IProject project) {
       synchronized (PREFS_BY_PROJECT) {
@@ -57,6 +77,8 @@ private HaxeProjectPreference(final IProject project) {
       this.project = project;
       prefs = new ScopedPreferenceStore(new ProjectScope(project), Haxe4EPlugin.PLUGIN_ID);
       prefs.setDefault(PROPERTY_ALTERNATE_AUTO_BUILD, true);
+      prefs.setDefault(PROPERTY_AUTO_BUILD_DELAY, 300);
+      prefs.setDefault(PROPERTY_PARALLEL_BUILD_MAX_WORKERS, Runtime.getRuntime().availableProcessors());
       prefs.addPropertyChangeListener(changeEvents::add);
    }
 
@@ -67,6 +89,25 @@ private HaxeProjectPreference(final IProject project) {
       return HaxeWorkspacePreference.getHaxeSDK(prefs.getString(PROPERTY_ALTERNATE_HAXE_SDK));
    }
 
+   /**
+    * @return number of milliseconds to wait for further changes before an auto-build is started
+    */
+   public int getAutoBuildDelay() {
+      return Math.max(0, prefs.getInt(PROPERTY_AUTO_BUILD_DELAY));
+   }
+
+   public AutoBuildMode getAutoBuildMode() {
+      final var mode = prefs.getString(PROPERTY_AUTO_BUILD_MODE);
+      if (Strings.isNotBlank(mode)) {
+         try {
+            return AutoBuildMode.valueOf(mode);
+         } catch (final IllegalArgumentException ex) {
+            Haxe4EPlugin.log().error(ex);
+         }
+      }
+      return AutoBuildMode.FULL;
+   }
+
    /**
     * Determines the effective default build file
     *
@@ -96,6 +137,31 @@ private HaxeProjectPreference(final IProject project) {
       return null;
    }
 
+   /**
+    * @return the build files to be built in addition to {@link #getBuildFile()} when parallel builds are enabled
+    */
+   public List<BuildFile> getAdditionalBuildFiles() {
+      final var buildSystem = getBuildSystem();
+      final var buildFiles = new ArrayList<BuildFile>();
+      for (final var buildFilePath : getAdditionalBuildFilePaths()) {
+         final var buildFile = project.getFile(buildFilePath);
+         if (buildSystem.getBuildFileExtension().equalsIgnoreCase(buildFile.getFileExtension()) && buildFile.exists()) {
+            buildFiles.add(buildSystem.toBuildFile(buildFile));
+         }
+      }
+      return buildFiles;
+   }
+
+   public List<String> getAdditionalBuildFilePaths() {
+      final var paths = new ArrayList<String>();
+      for (final var path : Strings.split(prefs.getString(PROPERTY_BUILD_FILES_ADDITIONAL), ',')) {
+         if (Strings.isNotBlank(path)) {
+            paths.add(path.trim());
+         }
+      }
+      return paths;
+   }
+
    public BuildSystem getBuildSystem() {
       final var bs = prefs.getString(PROPERTY_BUILD_SYSTEM);
       if (Strings.isNotBlank(bs)) {
@@ -119,6 +185,13 @@ public BuildSystem getBuildSystem() {
       return sdk;
    }
 
+   /**
+    * @return max number of compiler processes to run concurrently when parallel builds are enabled
+    */
+   public int getParallelBuildMaxWorkers() {
+      return Math.max(1, prefs.getInt(PROPERTY_PARALLEL_BUILD_MAX_WORKERS));
+   }
+
    public IProject getProject() {
       return project;
    }
@@ -127,6 +200,27 @@ public boolean isAutoBuild() {
       return prefs.getBoolean(PROPERTY_ALTERNATE_AUTO_BUILD);
    }
 
+   /**
+    * @return true if builds shall be executed with <code>--times</code> to collect compiler timings
+    */
+   public boolean isCollectBuildTimings() {
+      return prefs.getBoolean(PROPERTY_BUILD_TIMINGS);
+   }
+
+   /**
+    * @return true if all configured build files and their <code>--next</code> compilation units shall be built concurrently
+    */
+   public boolean isParallelBuild() {
+      return prefs.getBoolean(PROPERTY_PARALLEL_BUILD);
+   }
+
+   /**
+    * @return true if builds shall be executed via a long-lived Haxe compilation server (<code>haxe --wait</code>)
+    */
+   public boolean isUseCompilationServer() {
+      return prefs.getBoolean(PROPERTY_COMPILATION_SERVER);
+   }
+
    /**
     * Reverts the preference state to the last persistent state.
     */
@@ -183,10 +277,22 @@ public void setAlternateHaxeSDK(final @Nullable HaxeSDK sdk) {
       prefs.setValue(PROPERTY_ALTERNATE_HAXE_SDK, sdk == null ? "" : sdk.getName());
    }
 
+   public void setAdditionalBuildFilePaths(final List<String> projectRelativePaths) {
+      prefs.setValue(PROPERTY_BUILD_FILES_ADDITIONAL, String.join(",", projectRelativePaths));
+   }
+
    public void setAutoBuild(final boolean value) {
       prefs.setValue(PROPERTY_ALTERNATE_AUTO_BUILD, value);
    }
 
+   public void setAutoBuildDelay(final int millis) {
+      prefs.setValue(PROPERTY_AUTO_BUILD_DELAY, millis);
+   }
+
+   public void setAutoBuildMode(final AutoBuildMode mode) {
+      prefs.setValue(PROPERTY_AUTO_BUILD_MODE, mode.name());
+   }
+
    public void setBuildFilePath(final @Nullable String projectRelativePath) {
       if (effectiveBuildFileBeforeSave == null) {
          effectiveBuildFileBeforeSave = getBuildFile();
@@ -197,4 +303,20 @@ public void setBuildFilePath(final @Nullable String projectRelativePath) {
    public void setBuildSystem(final @Nullable BuildSystem buildSystem) {
       prefs.setValue(PROPERTY_BUILD_SYSTEM, buildSystem == null ? "" : buildSystem.name());
    }
+
+   public void setCollectBuildTimings(final boolean value) {
+      prefs.setValue(PROPERTY_BUILD_TIMINGS, value);
+   }
+
+   public void setParallelBuild(final boolean value) {
+      prefs.setValue(PROPERTY_PARALLEL_BUILD, value);
+   }
+
+   public void setParallelBuildMaxWorkers(final int value) {
+      prefs.setValue(PROPERTY_PARALLEL_BUILD_MAX_WORKERS, value);
+   }
+
+   public void setUseCompilationServer(final boolean value) {
+      prefs.setValue(PROPERTY_COMPILATION_SERVER, value);
+   }
 }
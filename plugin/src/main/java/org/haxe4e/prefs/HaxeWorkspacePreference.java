@@ -15,6 +15,8 @@
 import java.util.SortedSet;
 import java.util.TreeSet;
 
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.jdt.annotation.Nullable;
@@ -50,9 +52,12 @@ public final class HaxeWorkspacePreference {
    static final String PREFKEY_HAXE_SDKS = "haxe.sdks";
    static final String PREFKEY_WARNED_NO_SDK_REGISTERED = "haxe.warned_no_sdk_registered";
 
+   static final String PREFKEY_PARALLEL_PROJECT_BUILDS = "haxe.build.parallel_projects";
+
    static final String PREFKEY_DAP_TRACE_IO = "haxe.dap.trace.io";
    static final String PREFKEY_DAP_TRACE_IO_VERBOSE = "haxe.dap.trace.io.verbose";
 
+   static final String PREFKEY_LSP_METRICS = "haxe.lsp.metrics";
    static final String PREFKEY_LSP_TRACE_INITOPTS = "haxe.lsp.trace.init_options";
    static final String PREFKEY_LSP_TRACE_IO = "haxe.lsp.trace.io";
    static final String PREFKEY_LSP_TRACE_IO_VERBOSE = "haxe.lsp.trace.io.verbose";
@@ -188,6 +193,35 @@ public static SortedSet<HaxeSDK> getHaxeSDKs() {
       }
    }
 
+   /**
+    * Applies the parallel project builds preference to the workspace's max. number of concurrent builds. Independent projects are then
+    * built concurrently while projects are still built after the projects they reference.
+    * <p>
+    * The workspace setting is only ever raised, a higher value configured by the user or another plug-in is kept, and it is left
+    * untouched if the preference is disabled.
+    */
+   static void applyParallelProjectBuilds() {
+      if (!isParallelProjectBuilds())
+         return;
+
+      final var workspace = ResourcesPlugin.getWorkspace();
+      final var desc = workspace.getDescription();
+      final var maxConcurrentBuilds = Math.max(2, Runtime.getRuntime().availableProcessors());
+      if (desc.getMaxConcurrentBuilds() >= maxConcurrentBuilds)
+         return;
+
+      desc.setMaxConcurrentBuilds(maxConcurrentBuilds);
+      try {
+         workspace.setDescription(desc);
+      } catch (final CoreException ex) {
+         Haxe4EPlugin.log().error(ex);
+      }
+   }
+
+   public static boolean isParallelProjectBuilds() {
+      return STORE.getBoolean(PREFKEY_PARALLEL_PROJECT_BUILDS);
+   }
+
    public static boolean isDAPTraceIO() {
       if (STORE.contains(PREFKEY_DAP_TRACE_IO))
          return STORE.getBoolean(PREFKEY_DAP_TRACE_IO);
@@ -212,6 +246,15 @@ public static boolean isLSPTraceIOVerbose() {
       return Platform.getDebugBoolean("org.haxe4e/trace/lsp/io/verbose");
    }
 
+   /**
+    * @return if latency and payload-size metrics of the language server communication are collected
+    */
+   public static boolean isLSPMetrics() {
+      if (STORE.contains(PREFKEY_LSP_METRICS))
+         return STORE.getBoolean(PREFKEY_LSP_METRICS);
+      return Platform.getDebugBoolean("org.haxe4e/trace/lsp/metrics");
+   }
+
    public static boolean isLSPTraceInitOptions() {
       if (STORE.contains(PREFKEY_LSP_TRACE_INITOPTS))
          return STORE.getBoolean(PREFKEY_LSP_TRACE_INITOPTS);
@@ -8,12 +8,21 @@
 
 import static net.sf.jstuff.core.validation.NullAnalysisHelper.*;
 
+import java.util.Arrays;
+
+import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.jface.layout.GridLayoutFactory;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Group;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Spinner;
+import org.eclipse.swt.widgets.Text;
 import org.haxe4e.prefs.HaxeProjectPreference;
+import org.haxe4e.prefs.HaxeProjectPreference.AutoBuildMode;
 import org.haxe4e.util.ui.GridDatas;
 import org.haxe4e.widget.HaxeBuildFileSelectionGroup;
 import org.haxe4e.widget.HaxeBuildSystemSelectionGroup;
@@ -74,6 +83,62 @@ protected Control createContents(final Composite parent) {
       btnAutoBuild.setText("Enable auto build");
       btnAutoBuild.setSelection(prefs.isAutoBuild());
       Buttons.onSelected(btnAutoBuild, () -> prefs.setAutoBuild(btnAutoBuild.getSelection()));
+
+      final var btnAutoBuildTypeCheck = new Button(container, SWT.CHECK);
+      btnAutoBuildTypeCheck.setText("Only type-check on auto build (--no-output), generate artifacts on explicit builds only");
+      btnAutoBuildTypeCheck.setSelection(prefs.getAutoBuildMode() == AutoBuildMode.TYPE_CHECK);
+      Buttons.onSelected(btnAutoBuildTypeCheck, () -> prefs.setAutoBuildMode(btnAutoBuildTypeCheck.getSelection() //
+         ? AutoBuildMode.TYPE_CHECK
+         : AutoBuildMode.FULL));
+
+      final var cmpAutoBuildDelay = new Composite(container, SWT.NONE);
+      cmpAutoBuildDelay.setLayout(GridLayoutFactory.fillDefaults().numColumns(2).create());
+      new Label(cmpAutoBuildDelay, SWT.NONE).setText("Auto build delay in ms (changes made meanwhile are built together):");
+      final var spnAutoBuildDelay = new Spinner(cmpAutoBuildDelay, SWT.BORDER);
+      spnAutoBuildDelay.setValues(prefs.getAutoBuildDelay(), 0, 60_000, 0, 100, 1_000);
+      spnAutoBuildDelay.addModifyListener(ev -> prefs.setAutoBuildDelay(spnAutoBuildDelay.getSelection()));
+
+      /*
+       * compilation server check box
+       */
+      final var btnCompilationServer = new Button(container, SWT.CHECK);
+      btnCompilationServer.setText("Build via Haxe compilation server (haxe --wait)");
+      btnCompilationServer.setSelection(prefs.isUseCompilationServer());
+      Buttons.onSelected(btnCompilationServer, () -> prefs.setUseCompilationServer(btnCompilationServer.getSelection()));
+
+      /*
+       * build timings check box
+       */
+      final var btnBuildTimings = new Button(container, SWT.CHECK);
+      btnBuildTimings.setText("Collect compiler timings (--times) and show them in the 'Haxe Build Timings' view");
+      btnBuildTimings.setSelection(prefs.isCollectBuildTimings());
+      Buttons.onSelected(btnBuildTimings, () -> prefs.setCollectBuildTimings(btnBuildTimings.getSelection()));
+
+      /*
+       * parallel build settings
+       */
+      final var grpParallelBuild = new Group(container, SWT.NONE);
+      grpParallelBuild.setLayoutData(GridDatas.fillHorizontalExcessive());
+      grpParallelBuild.setLayout(GridLayoutFactory.swtDefaults().numColumns(2).create());
+      grpParallelBuild.setText("Parallel Build");
+
+      final var btnParallelBuild = new Button(grpParallelBuild, SWT.CHECK);
+      btnParallelBuild.setLayoutData(GridDataFactory.fillDefaults().span(2, 1).create());
+      btnParallelBuild.setText("Build all build files and their --next compilation units concurrently");
+      btnParallelBuild.setSelection(prefs.isParallelBuild());
+      Buttons.onSelected(btnParallelBuild, () -> prefs.setParallelBuild(btnParallelBuild.getSelection()));
+
+      new Label(grpParallelBuild, SWT.NONE).setText("Additional build files (comma-separated):");
+      final var txtAdditionalBuildFiles = new Text(grpParallelBuild, SWT.BORDER);
+      txtAdditionalBuildFiles.setLayoutData(GridDatas.fillHorizontalExcessive());
+      txtAdditionalBuildFiles.setText(String.join(",", prefs.getAdditionalBuildFilePaths()));
+      txtAdditionalBuildFiles.addModifyListener(ev -> prefs.setAdditionalBuildFilePaths(Arrays.asList(txtAdditionalBuildFiles.getText()
+         .split(","))));
+
+      new Label(grpParallelBuild, SWT.NONE).setText("Max. concurrent compiler processes:");
+      final var spnMaxWorkers = new Spinner(grpParallelBuild, SWT.BORDER);
+      spnMaxWorkers.setValues(prefs.getParallelBuildMaxWorkers(), 1, 64, 0, 1, 4);
+      spnMaxWorkers.addModifyListener(ev -> prefs.setParallelBuildMaxWorkers(spnMaxWorkers.getSelection()));
       return container;
    }
 
@@ -0,0 +1,83 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.util;
+
+/**
+ * Thread-safe histogram of non-negative values with logarithmic buckets, i.e. percentiles are accurate to 25% of the value while the
+ * memory usage is constant.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class Histogram {
+
+   private static final int BUCKETS_PER_POWER_OF_2 = 4;
+   private static final int BUCKET_COUNT = 63 * BUCKETS_PER_POWER_OF_2 + 1;
+
+   private static int bucketOf(final long value) {
+      if (value <= 0)
+         return 0;
+      final var exponent = 63 - Long.numberOfLeadingZeros(value);
+      final var offset = value - (1L << exponent);
+      final var subBucket = exponent >= 2 ? offset >> exponent - 2 : offset << 2 - exponent;
+      return exponent * BUCKETS_PER_POWER_OF_2 + (int) subBucket + 1;
+   }
+
+   /**
+    * @return the largest value falling into the given bucket
+    */
+   private static long upperBoundOf(final int bucket) {
+      if (bucket == 0)
+         return 0;
+      final var exponent = (bucket - 1) / BUCKETS_PER_POWER_OF_2;
+      final var subBucket = (bucket - 1) % BUCKETS_PER_POWER_OF_2;
+      final var base = 1L << exponent;
+      return base + (long) Math.ceil((subBucket + 1) * (base / (double) BUCKETS_PER_POWER_OF_2)) - 1;
+   }
+
+   private final long[] counts = new long[BUCKET_COUNT];
+   private long count;
+   private long max;
+   private long sum;
+
+   public synchronized long getCount() {
+      return count;
+   }
+
+   public synchronized long getMax() {
+      return max;
+   }
+
+   public synchronized double getMean() {
+      return count == 0 ? 0 : (double) sum / count;
+   }
+
+   /**
+    * @param percentile e.g. <code>99</code> for the 99th percentile
+    * @return an upper bound of the value below which the given percentage of recorded values falls, <code>0</code> if no values were
+    *         recorded
+    */
+   public synchronized long getPercentile(final double percentile) {
+      if (count == 0)
+         return 0;
+      final var rank = (long) Math.ceil(percentile / 100 * count);
+      long seen = 0;
+      for (var bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+         seen += counts[bucket];
+         if (seen >= rank)
+            return Math.min(max, upperBoundOf(bucket));
+      }
+      return max;
+   }
+
+   public synchronized void record(final long value) {
+      final var v = Math.max(0, value);
+      counts[bucketOf(v)]++;
+      count++;
+      sum += v;
+      max = Math.max(max, v);
+   }
+}
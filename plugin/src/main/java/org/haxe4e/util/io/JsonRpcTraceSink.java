@@ -0,0 +1,335 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.util.io;
+
+import static net.sf.jstuff.core.validation.NullAnalysisHelper.asNonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.haxe4e.Haxe4EPlugin;
+import org.haxe4e.util.io.VSCodeJsonRpcLineTracing.Source;
+
+/**
+ * Traces the lines of a JSON-RPC communication, e.g. with a language server or debug adapter, to size-rotated files.
+ * <p>
+ * The streams returned by {@link #trace(InputStream, Source)} and {@link #trace(OutputStream, Source)} only split the communication
+ * into lines and hand them to a lock-free ring buffer, so the reader and writer threads of the protocol are not slowed down by file
+ * I/O. The buffer is drained by a background writer. Lines arriving while the buffer is full are dropped and counted.
+ * <p>
+ * Whether tracing is enabled is re-evaluated while the streams are in use, i.e. tracing can be switched on and off without
+ * restarting the traced process.
+ *
+ * @author Sebastian Thomschke
+ */
+public final class JsonRpcTraceSink {
+
+   private record Entry(LocalTime time, Source source, byte[] line, boolean verbose) {
+   }
+
+   private final class LineSplitter {
+      private final Source source;
+      private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+      private boolean isCapturing;
+
+      LineSplitter(final Source source) {
+         this.source = source;
+      }
+
+      void accept(final byte[] b, final int off, final int len) {
+         if (!isCapturing())
+            return;
+         var lineStart = off;
+         final var end = off + len;
+         for (var i = off; i < end; i++) {
+            if (b[i] == '\n') {
+               line.write(b, lineStart, i - lineStart);
+               emitLine();
+               lineStart = i + 1;
+            }
+         }
+         line.write(b, lineStart, end - lineStart);
+      }
+
+      void accept(final int b) {
+         if (b < 0 || !isCapturing())
+            return;
+         if (b == '\n') {
+            emitLine();
+         } else {
+            line.write(b);
+         }
+      }
+
+      private void emitLine() {
+         offer(new Entry(LocalTime.now(), source, line.toByteArray(), isVerbose));
+         line.reset();
+      }
+
+      private boolean isCapturing() {
+         if (isEnabled()) {
+            isCapturing = true;
+         } else if (isCapturing) {
+            line.reset(); // discard the partial line captured before tracing was switched off
+            isCapturing = false;
+         }
+         return isCapturing;
+      }
+   }
+
+   private static final int BUFFER_CAPACITY = 8_192; // must be a power of 2
+   private static final int BUFFER_INDEX_MASK = BUFFER_CAPACITY - 1;
+   private static final int DRAIN_INTERVAL_MS = 100;
+   private static final long MAX_FILE_SIZE = 10L * 1024 * 1024;
+   private static final int MAX_ROTATED_FILES = 5;
+   private static final long SETTINGS_REFRESH_INTERVAL_MS = 1_000;
+
+   private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final var thread = new Thread(runnable, "Haxe JSON-RPC Trace Writer");
+      thread.setDaemon(true);
+      return thread;
+   });
+
+   private final Path traceFile;
+   private final BooleanSupplier isEnabledSetting;
+   private final BooleanSupplier isVerboseSetting;
+
+   private volatile boolean isEnabled;
+   private volatile boolean isVerbose;
+   private volatile long settingsRefreshedAt;
+
+   private final AtomicReferenceArray<@Nullable Entry> buffer = new AtomicReferenceArray<>(BUFFER_CAPACITY);
+
+   /**
+    * sequence number of the next buffer slot to be claimed by a producer
+    */
+   private final AtomicLong head = new AtomicLong();
+
+   /**
+    * sequence number of the next buffer slot to be drained, only modified by the writer
+    */
+   private volatile long tail;
+
+   private final AtomicLong droppedLines = new AtomicLong();
+   private long reportedDroppedLines;
+
+   private volatile @Nullable ScheduledFuture<?> drainTask;
+   private @Nullable OutputStream out;
+   private long fileSize;
+
+   /**
+    * @param traceFile the file to write to, rotated files get the suffixes <code>.1</code> to <code>.5</code>
+    * @param isEnabledSetting if tracing is enabled, re-evaluated at most once per second
+    * @param isVerboseSetting if protocol headers are traced too, re-evaluated at most once per second
+    */
+   public JsonRpcTraceSink(final Path traceFile, final BooleanSupplier isEnabledSetting, final BooleanSupplier isVerboseSetting) {
+      this.traceFile = traceFile;
+      this.isEnabledSetting = isEnabledSetting;
+      this.isVerboseSetting = isVerboseSetting;
+   }
+
+   private void closeFile() {
+      final var out = this.out;
+      if (out != null) {
+         try {
+            out.close();
+         } catch (final IOException ex) {
+            Haxe4EPlugin.log().error(ex, "Failed to write trace file {0}", traceFile);
+         }
+         this.out = null;
+      }
+   }
+
+   /**
+    * Writes all buffered lines to the trace file. Runs on the writer thread.
+    */
+   private synchronized void drain() {
+      try {
+         var seq = tail;
+         while (seq < head.get()) {
+            final var idx = (int) (seq & BUFFER_INDEX_MASK);
+            final var entry = buffer.getAndSet(idx, null);
+            if (entry == null) {
+               break; // slot claimed by a producer but not yet filled
+            }
+            seq++;
+            tail = seq;
+            write(entry);
+         }
+
+         final var dropped = droppedLines.get();
+         if (dropped != reportedDroppedLines) {
+            write(LocalTime.now() + " !!!!!! " + (dropped - reportedDroppedLines) + " lines dropped, tracing fell behind"
+                  + System.lineSeparator());
+            reportedDroppedLines = dropped;
+         }
+
+         final var out = this.out;
+         if (out != null) {
+            out.flush();
+            if (!isEnabled() && seq == head.get()) {
+               closeFile(); // tracing was switched off, release the file handle
+            }
+         }
+      } catch (final IOException ex) {
+         Haxe4EPlugin.log().error(ex, "Failed to write trace file {0}", traceFile);
+         closeFile();
+      }
+   }
+
+   /**
+    * @return number of lines not traced because the writer fell behind
+    */
+   public long getDroppedLines() {
+      return droppedLines.get();
+   }
+
+   public Path getTraceFile() {
+      return traceFile;
+   }
+
+   public boolean isEnabled() {
+      final var now = System.currentTimeMillis();
+      if (now - settingsRefreshedAt >= SETTINGS_REFRESH_INTERVAL_MS) {
+         settingsRefreshedAt = now;
+         isVerbose = isVerboseSetting.getAsBoolean();
+         isEnabled = isVerbose || isEnabledSetting.getAsBoolean();
+      }
+      return isEnabled;
+   }
+
+   private void offer(final Entry entry) {
+      ensureWriterScheduled();
+      while (true) {
+         final var seq = head.get();
+         if (seq - tail >= BUFFER_CAPACITY) {
+            droppedLines.incrementAndGet();
+            return;
+         }
+         if (head.compareAndSet(seq, seq + 1)) {
+            buffer.set((int) (seq & BUFFER_INDEX_MASK), entry);
+            return;
+         }
+      }
+   }
+
+   private void ensureWriterScheduled() {
+      if (drainTask != null)
+         return;
+      synchronized (this) {
+         if (drainTask == null) {
+            drainTask = WRITER.scheduleWithFixedDelay(this::drain, DRAIN_INTERVAL_MS, DRAIN_INTERVAL_MS, TimeUnit.MILLISECONDS);
+         }
+      }
+   }
+
+   private OutputStream openFile() throws IOException {
+      var out = this.out;
+      if (out == null) {
+         Files.createDirectories(asNonNull(traceFile.getParent()));
+         out = new BufferedOutputStream(Files.newOutputStream(traceFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+         fileSize = Files.size(traceFile);
+         this.out = out;
+         Haxe4EPlugin.log().info("Tracing JSON-RPC communication to {0}", traceFile);
+      }
+      return out;
+   }
+
+   private void rotateFile() throws IOException {
+      closeFile();
+      for (var i = MAX_ROTATED_FILES - 1; i > 0; i--) {
+         final var older = traceFile.resolveSibling(traceFile.getFileName() + "." + i);
+         if (Files.exists(older)) {
+            Files.move(older, traceFile.resolveSibling(traceFile.getFileName() + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+         }
+      }
+      Files.move(traceFile, traceFile.resolveSibling(traceFile.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+   }
+
+   /**
+    * @return a stream tracing the lines read from the given stream
+    */
+   public InputStream trace(final InputStream in, final Source source) {
+      final var lines = new LineSplitter(source);
+      return new FilterInputStream(in) {
+         @Override
+         public int read() throws IOException {
+            final var b = super.read();
+            lines.accept(b);
+            return b;
+         }
+
+         @Override
+         public int read(final byte[] b, final int off, final int len) throws IOException {
+            final var count = super.read(b, off, len);
+            if (count > 0) {
+               lines.accept(b, off, count);
+            }
+            return count;
+         }
+      };
+   }
+
+   /**
+    * @return a stream tracing the lines written to the given stream
+    */
+   public OutputStream trace(final OutputStream out, final Source source) {
+      final var lines = new LineSplitter(source);
+      return new FilterOutputStream(out) {
+         @Override
+         public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len); // FilterOutputStream would write byte by byte
+            lines.accept(b, off, len);
+         }
+
+         @Override
+         public void write(final int b) throws IOException {
+            out.write(b);
+            lines.accept(b);
+         }
+      };
+   }
+
+   private void write(final Entry entry) throws IOException {
+      var line = new String(entry.line, StandardCharsets.UTF_8);
+      if (line.endsWith("\r")) {
+         line = line.substring(0, line.length() - 1);
+      }
+      final var formatted = VSCodeJsonRpcLineTracing.format(entry.source, line, entry.verbose, false);
+      if (formatted != null) {
+         write(entry.time + " " + formatted);
+      }
+   }
+
+   private void write(final String text) throws IOException {
+      if (fileSize >= MAX_FILE_SIZE) {
+         rotateFile();
+      }
+      final var bytes = text.getBytes(StandardCharsets.UTF_8);
+      openFile().write(bytes);
+      fileSize += bytes.length;
+   }
+}
@@ -6,10 +6,7 @@
  */
 package org.haxe4e.util.io;
 
-import java.io.IOException;
-import java.io.OutputStream;
-
-import org.haxe4e.Haxe4EPlugin;
+import org.eclipse.jdt.annotation.Nullable;
 import org.haxe4e.util.Ansi;
 
 import net.sf.jstuff.core.Strings;
@@ -25,32 +22,26 @@ public enum Source {
       SERVER_OUT
    }
 
-   public static void traceLine(final Source source, final String line, final boolean verbose) {
-      traceLine(source, line, System.out, verbose, true);
-   }
-
-   public static void traceLine(final Source source, String line, final OutputStream out, final boolean verbose, final boolean colorize) {
+   /**
+    * @return the line prefixed with its source and terminated by a line separator or null if the line is not traced
+    */
+   public static @Nullable String format(final Source source, String line, final boolean verbose, final boolean colorize) {
       if (!verbose) {
          if (line.isBlank() || "Content-Type: application/vscode-jsonrpc; charset=utf-8".equals(line))
-            return;
+            return null;
          line = Strings.substringBefore(line, "Content-Length: ");
          if (line.isBlank())
-            return;
+            return null;
          line = Strings.replace(line, "\"jsonrpc\":\"2.0\",", "");
       }
 
       line += (colorize ? Ansi.RESET : "") + System.lineSeparator();
 
-      try {
-         switch (source) {
-            case CLIENT_OUT -> out.write(((colorize ? Ansi.BLUE : "") + "CLIENT >> " + line).getBytes());
-            case SERVER_OUT -> out.write(((colorize ? Ansi.MAGENTA : "") + "SERVER << " + line).getBytes());
-            case SERVER_ERR -> out.write(((colorize ? Ansi.RED : "") + "SRVERR << " + line).getBytes());
-         }
-         out.flush();
-      } catch (final IOException ex) {
-         Haxe4EPlugin.log().error(ex);
-      }
+      return switch (source) {
+         case CLIENT_OUT -> (colorize ? Ansi.BLUE : "") + "CLIENT >> " + line;
+         case SERVER_OUT -> (colorize ? Ansi.MAGENTA : "") + "SERVER << " + line;
+         case SERVER_ERR -> (colorize ? Ansi.RED : "") + "SRVERR << " + line;
+      };
    }
 
    private VSCodeJsonRpcLineTracing() {
@@ -0,0 +1,40 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.tests.builder;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.eclipse.core.resources.IMarker;
+import org.haxe4e.builder.HaxeCompilerDiagnostics;
+import org.haxe4e.builder.HaxeCompilerDiagnostics.Diagnostic;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Sebastian Thomschke
+ */
+class HaxeCompilerDiagnosticsTest {
+
+   @Test
+   void testParseDiagnostics() {
+      final var parser = new HaxeCompilerDiagnostics.Parser();
+      """
+         Building project...
+         src/Main.hx:3: characters 5-12 : Type not found : Foo
+         src/Main.hx:7: lines 7-10 : Missing return: Int
+         C:\\haxelib\\lib1\\src\\Lib.hx:12: characters 1-5 : Warning : This typedef is deprecated
+         src/Main.hx:15: characters 9-10 : Int should be String
+         src/Main.hx:15: characters 9-10 : ... For function argument 'x'
+         """.lines().forEach(parser);
+
+      assertThat(parser.getDiagnostics()).containsExactly( //
+         new Diagnostic("src/Main.hx", 3, 3, 4, 11, IMarker.SEVERITY_ERROR, "Type not found : Foo"), //
+         new Diagnostic("src/Main.hx", 7, 10, -1, -1, IMarker.SEVERITY_ERROR, "Missing return: Int"), //
+         new Diagnostic("C:\\haxelib\\lib1\\src\\Lib.hx", 12, 12, 0, 4, IMarker.SEVERITY_WARNING, "This typedef is deprecated"), //
+         new Diagnostic("src/Main.hx", 15, 15, 8, 9, IMarker.SEVERITY_ERROR, "Int should be String For function argument 'x'") //
+      );
+   }
+}
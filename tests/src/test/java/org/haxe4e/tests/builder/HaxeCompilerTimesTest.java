@@ -0,0 +1,54 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.tests.builder;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.haxe4e.builder.HaxeCompilerTimes;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Sebastian Thomschke
+ */
+class HaxeCompilerTimesTest {
+
+   @Test
+   void testParseTimesTable() {
+      final var parser = new HaxeCompilerTimes.Parser();
+      """
+         src/Main.hx:3: characters 1-5 : Warning : some warning
+         name                     | time(s) |   % |  p% |      # | info
+         ----------------------------------------------------------------
+                                  |   0.412 | 100 | 100 |      1 |
+           macro                  |   0.102 |  25 |  25 |     37 |
+             execution            |   0.080 |  19 |  78 |     37 | my.Macro.build
+           typing                 |   0.250 |  61 |  61 |    211 |
+         ----------------------------------------------------------------
+         total                    |   0.412 | 100 | 100 |      1 |
+         Done
+         """.lines().forEach(parser);
+
+      assertThat(parser.getTotalSeconds()).isEqualTo(0.412);
+
+      final var entries = parser.getEntries();
+      assertThat(entries).hasSize(3);
+
+      assertThat(entries.get(0).phase()).isEqualTo("macro");
+      assertThat(entries.get(0).depth()).isZero();
+      assertThat(entries.get(0).count()).isEqualTo(37);
+
+      assertThat(entries.get(1).phase()).isEqualTo("macro");
+      assertThat(entries.get(1).path()).isEqualTo("macro > execution");
+      assertThat(entries.get(1).depth()).isEqualTo(1);
+      assertThat(entries.get(1).seconds()).isEqualTo(0.080);
+      assertThat(entries.get(1).parentPercent()).isEqualTo(78);
+      assertThat(entries.get(1).info()).isEqualTo("my.Macro.build");
+
+      assertThat(entries.get(2).path()).isEqualTo("typing");
+      assertThat(entries.get(2).percent()).isEqualTo(61);
+   }
+}
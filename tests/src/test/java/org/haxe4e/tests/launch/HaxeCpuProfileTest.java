@@ -0,0 +1,73 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.tests.launch;
+
+import static net.sf.jstuff.core.validation.NullAnalysisHelper.asNonNull;
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+
+import org.haxe4e.launch.HaxeCpuProfile;
+import org.haxe4e.launch.HaxeCpuProfile.SourceLocation;
+import org.haxe4e.launch.SourceMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Sebastian Thomschke
+ */
+class HaxeCpuProfileTest {
+
+   private static final String SOURCE_MAP = """
+      {"version":3,"sources":["src/Main.hx"],"names":[],"mappings":"AAAA;AACA,IACA"}
+      """;
+
+   @Test
+   void testCpuProfile() throws IOException {
+      final var sourceMap = SourceMap.parse(SOURCE_MAP);
+      final var profile = HaxeCpuProfile.parse("""
+         {
+           "nodes": [
+             {"id":1, "callFrame":{"functionName":"(root)", "url":"", "lineNumber":-1, "columnNumber":-1}, "children":[2]},
+             {"id":2, "callFrame":{"functionName":"Main.main", "url":"file:///main.js", "lineNumber":0, "columnNumber":0}, "children":[3]},
+             {"id":3, "callFrame":{"functionName":"Main.update", "url":"file:///main.js", "lineNumber":1, "columnNumber":4}}
+           ],
+           "startTime": 0,
+           "endTime": 700,
+           "samples": [2, 3, 3],
+           "timeDeltas": [0, 100, 200]
+         }
+         """, callFrame -> {
+         final var location = sourceMap.lookup(callFrame.line(), callFrame.column());
+         return location == null ? SourceLocation.UNKNOWN : new SourceLocation(location.source(), location.line());
+      });
+
+      final var root = profile.getRoot();
+      assertThat(root.getTotalMicros()).isEqualTo(700);
+
+      final var main = root.children.get(0);
+      assertThat(main.name).isEqualTo("Main.main");
+      assertThat(main.location).isEqualTo(new SourceLocation("src/Main.hx", 1));
+      assertThat(main.getSelfMicros()).isEqualTo(100);
+      assertThat(main.getTotalMicros()).isEqualTo(700);
+
+      final var update = main.children.get(0);
+      assertThat(update.name).isEqualTo("Main.update");
+      assertThat(update.location).isEqualTo(new SourceLocation("src/Main.hx", 3));
+      assertThat(update.getSelfMicros()).isEqualTo(600);
+
+      assertThat(profile.getHotMethods()).extracting(f -> f.name).containsExactly("Main.update", "Main.main");
+   }
+
+   @Test
+   void testSourceMap() throws IOException {
+      final var sourceMap = SourceMap.parse(SOURCE_MAP);
+      assertThat(sourceMap.lookup(0, 5)).isEqualTo(new SourceMap.Location("src/Main.hx", 1));
+      assertThat(sourceMap.lookup(1, 2)).isEqualTo(new SourceMap.Location("src/Main.hx", 2));
+      assertThat(asNonNull(sourceMap.lookup(1, 10)).line()).isEqualTo(3);
+      assertThat(sourceMap.lookup(2, 0)).isNull();
+   }
+}
@@ -63,6 +63,75 @@ public List<String> getArgs() throws RuntimeIOException {
       );
    }
 
+   @Test
+   void testHaxeBuildFileCompilationUnits() {
+      final var parentMock = asNonNull(mock(IContainer.class));
+      final var fileMock = asNonNull(mock(IFile.class));
+      when(fileMock.getLocation()).thenReturn(Path.fromOSString("multi.hxml"));
+      when(fileMock.getParent()).thenReturn(parentMock);
+      when(parentMock.getProjectRelativePath()).thenReturn(Path.fromOSString(""));
+      final var buildFile = new HaxeBuildFile(fileMock) {
+         @Override
+         public List<String> getExpandedArgs() throws RuntimeIOException {
+            return parseArgs(Paths.get("src/test/resources/multi.hxml"));
+         }
+      };
+
+      assertThat(buildFile.getCompilationUnits()).containsExactly( //
+         List.of("-cp", "src", "-lib", "lib1", "-main", "Client", "-js", "bin/client.js"), //
+         List.of("-cp", "src", "-lib", "lib1", "-main", "Server", "--interp") //
+      );
+
+      final var units = buildFile.getCompilationUnits();
+      assertThat(buildFile.getOutputPaths(units.get(0))).containsExactly(Path.fromOSString("bin/client.js"));
+      assertThat(buildFile.getOutputPaths(units.get(1))).isEmpty();
+   }
+
+   @Test
+   void testHaxeBuildFilePostBuildCommands() {
+      // like the Haxe compiler, the remainder of a --cmd line is a single argument
+      assertThat(HaxeBuildFile.parseArgs(Paths.get("src/test/resources/cmd.hxml"))) //
+         .containsSubsequence("--cmd", "node bin/main.js") //
+         .containsSubsequence("-cmd", "hl bin/main.hl") //
+         .doesNotContain("node", "hl");
+
+      assertThat(newHaxeBuildFile("cmd.hxml").getCompilationUnits()).containsExactly( //
+         List.of("-cp", "src", "-main", "Main", "-js", "bin/main.js", "--cmd", "node bin/main.js"), //
+         List.of("-cp", "src", "-main", "Main", "--hl", "bin/main.hl", "-D", "debug", "-cmd", "hl bin/main.hl") //
+      );
+
+      final var units = newHaxeBuildFile("cmd.hxml").getCompilationUnits();
+      assertThat(HaxeBuildFile.getPostBuildCommands(units.get(0))).containsExactly("node bin/main.js");
+      assertThat(HaxeBuildFile.getPostBuildCommands(units.get(1))).containsExactly("hl bin/main.hl");
+      assertThat(HaxeBuildFile.getPostBuildCommands(newHaxeBuildFile("multi.hxml").getCompilationUnits().get(0))).isEmpty();
+   }
+
+   @Test
+   void testHaxeBuildFileTypeCheckArgs() {
+      final var units = newHaxeBuildFile("cmd.hxml").getCompilationUnits();
+      assertThat(HaxeBuildFile.toTypeCheckArgs(units.get(0))) //
+         .containsExactly("-cp", "src", "-main", "Main", "-js", "bin/main.js", "--no-output");
+      assertThat(HaxeBuildFile.toTypeCheckArgs(units.get(1))) //
+         .containsExactly("-cp", "src", "-main", "Main", "--hl", "bin/main.hl", "-D", "debug", "--no-output");
+
+      assertThat(HaxeBuildFile.toTypeCheckArgs(List.of("-cp", "src", "-lib", "lib1", "--run", "Main", "arg1", "arg2"))) //
+         .containsExactly("-cp", "src", "-lib", "lib1", "--main", "Main", "--interp", "--no-output");
+
+      assertThat(HaxeBuildFile.toTypeCheckArgs(List.of("-cp", "src", "--main", "Main", "--interp", "--no-output"))) //
+         .containsExactly("-cp", "src", "--main", "Main", "--interp", "--no-output");
+   }
+
+   @Test
+   void testHaxeBuildFileWithoutPostBuildCommands() {
+      final var units = newHaxeBuildFile("cmd.hxml").getCompilationUnits();
+      // e.g. the compiler arguments used for hot reloading
+      assertThat(HaxeBuildFile.withoutPostBuildCommands(units.get(1))) //
+         .containsExactly("-cp", "src", "-main", "Main", "--hl", "bin/main.hl", "-D", "debug");
+      // e.g. the compiler arguments used for CPU profiling of node.js programs
+      assertThat(HaxeBuildFile.withoutPostBuildCommands(units.get(0))) //
+         .containsExactly("-cp", "src", "-main", "Main", "-js", "bin/main.js");
+   }
+
    @Test
    void testLimeBuildFile() {
       final var parentMock = asNonNull(mock(IContainer.class));
@@ -84,4 +153,18 @@ public DOMFile parseFile() throws RuntimeIOException {
          Path.fromOSString("dir/yet another src") //
       );
    }
+
+   private HaxeBuildFile newHaxeBuildFile(final String fixture) {
+      final var parentMock = asNonNull(mock(IContainer.class));
+      final var fileMock = asNonNull(mock(IFile.class));
+      when(fileMock.getLocation()).thenReturn(Path.fromOSString(fixture));
+      when(fileMock.getParent()).thenReturn(parentMock);
+      when(parentMock.getProjectRelativePath()).thenReturn(Path.fromOSString(""));
+      return new HaxeBuildFile(fileMock) {
+         @Override
+         public List<String> getExpandedArgs() throws RuntimeIOException {
+            return parseArgs(Paths.get("src/test/resources/" + fixture));
+         }
+      };
+   }
 }
@@ -0,0 +1,42 @@
+/*
+ * SPDX-FileCopyrightText: © The Haxe4E authors
+ * SPDX-FileContributor: Sebastian Thomschke
+ * SPDX-License-Identifier: EPL-2.0
+ * SPDX-ArtifactOfProjectHomePage: https://github.com/haxe4e/haxe4e
+ */
+package org.haxe4e.tests.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.haxe4e.util.Histogram;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Sebastian Thomschke
+ */
+class HistogramTest {
+
+   @Test
+   void testHistogram() {
+      final var histogram = new Histogram();
+      assertThat(histogram.getCount()).isZero();
+      assertThat(histogram.getPercentile(50)).isZero();
+
+      for (var i = 1; i <= 1_000; i++) {
+         histogram.record(i);
+      }
+      assertThat(histogram.getCount()).isEqualTo(1_000);
+      assertThat(histogram.getMax()).isEqualTo(1_000);
+      assertThat(histogram.getMean()).isEqualTo(500.5);
+
+      // percentiles are upper bounds accurate to 25%
+      assertThat(histogram.getPercentile(50)).isBetween(500L, 625L);
+      assertThat(histogram.getPercentile(90)).isBetween(900L, 1_000L);
+      assertThat(histogram.getPercentile(99)).isBetween(990L, 1_000L);
+      assertThat(histogram.getPercentile(100)).isEqualTo(1_000);
+
+      histogram.record(0);
+      histogram.record(-5);
+      assertThat(histogram.getPercentile(0.1)).isZero();
+   }
+}